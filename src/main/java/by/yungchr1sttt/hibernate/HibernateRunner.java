@@ -1,57 +1,65 @@
 package by.yungchr1sttt.hibernate;
 
-import by.yungchr1sttt.hibernate.convertor.BirthdayConverter;
-import by.yungchr1sttt.hibernate.entity.*;
+import by.yungchr1sttt.hibernate.load.LoadGenerator;
+import by.yungchr1sttt.hibernate.load.LoadOperation;
+import by.yungchr1sttt.hibernate.load.LoadReport;
 import by.yungchr1sttt.hibernate.util.HibernateUtil;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Session;
 import org.hibernate.SessionFactory;
-import org.hibernate.cfg.Configuration;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.time.LocalDate;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Нагрузочный прогон на виртуальных потоках, аргументы - key=value:
+ * <pre>
+ * config=hibernate.cfg.xml concurrency=1000 units=10000 mix=create_company:2,join_chat:5,read_authors:3 pinning_ms=20
+ * </pre>
+ */
 @Slf4j
 public class HibernateRunner {
-    //перенесён в lombok @Slf4j
-    //private static final Logger log = LoggerFactory.getLogger(HibernateRunner.class);
 
     public static void main(String[] args) {
-        // TRANSIENT
-        Company company = Company.builder()
-                .name("Mail")
-                .build();
-
-
-        User user = User.builder()
-                .username("ivan52@mail.ru")
-                .personalInfo(PersonalInfo.builder()
-                        .firstName("Ivan")
-                        .lastName("Ivanov")
-                        .birthDate(new Birthday(LocalDate.of(2002, 01, 01)))
-                        .build())
-                .role(Role.ADMIN)
-                .company(company)
-                .build();
-
-        log.info("User object is transient state: {}", user);
-        // TRANSIENT
-        try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory()) {
-            try (Session session1 = sessionFactory.openSession()) {
-                session1.beginTransaction();
-
-                session1.persist(user);
-
-
-                //PERSISTENT к session1 и TRANSIENT к session2
-                //session1.merge(company);
-                //session1.merge(user);
-                session1.getTransaction().commit();
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
             }
-        } catch (Exception ex) {
-            log.error("Exception occurred", ex);
-            throw ex;
+            options.put(option[0], option[1]);
         }
+
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory(
+                options.getOrDefault("config", HibernateUtil.DEFAULT_CONFIGURATION));
+        HibernateUtil.warmUp(sessionFactory);
+        LoadReport report = LoadGenerator.builder()
+                .sessionFactory(sessionFactory)
+                .concurrency(intOption(options, "concurrency", LoadGenerator.DEFAULT_CONCURRENCY))
+                .units(intOption(options, "units", LoadGenerator.DEFAULT_UNITS))
+                .mix(options.containsKey("mix") ? parseMix(options.get("mix")) : null)
+                .pinningThreshold(Duration.ofMillis(intOption(options, "pinning_ms",
+                        (int) LoadGenerator.DEFAULT_PINNING_THRESHOLD.toMillis())))
+                .build()
+                .run();
+
+        log.info("Load report:\n{}", report.format());
+        HibernateUtil.getPoolMetrics(sessionFactory).ifPresent(metrics -> log.info("Pool: {}", metrics));
+        HibernateUtil.shutdown();
     }
-}
 
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String weight : mix.split(",")) {
+            String[] parts = weight.split(":", 2);
+            weights.put(LoadOperation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,5 @@
+package by.yungchr1sttt.hibernate.audit;
+
+public enum AuditAction {
+    INSERT, UPDATE, DELETE
+}
@@ -0,0 +1,43 @@
+package by.yungchr1sttt.hibernate.audit;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.function.Supplier;
+
+/**
+ * Кто выполняет текущую операцию - попадает в createdBy и в actor записей аудита.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class AuditContext {
+
+    public static final String SYSTEM = "system";
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+
+    public static String currentUser() {
+        String user = CURRENT_USER.get();
+        return user != null ? user : SYSTEM;
+    }
+
+    public static <T> T callAs(String user, Supplier<T> work) {
+        String previous = CURRENT_USER.get();
+        CURRENT_USER.set(user);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_USER.remove();
+            } else {
+                CURRENT_USER.set(previous);
+            }
+        }
+    }
+
+    public static void runAs(String user, Runnable work) {
+        callAs(user, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package by.yungchr1sttt.hibernate.audit;
+
+import by.yungchr1sttt.hibernate.entity.AuditLog;
+import by.yungchr1sttt.hibernate.entity.AuditableEntity;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Post-commit слушатель: вызывается после успешного коммита и только ставит событие в очередь,
+ * поэтому транзакция не ждёт записи аудита, а откаченные изменения в аудит не попадают.
+ */
+@RequiredArgsConstructor
+class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final AuditTrail auditTrail;
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return AuditableEntity.class.isAssignableFrom(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        auditTrail.offer(auditLog(event.getPersister(), event.getId(), AuditAction.INSERT, null));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        String[] names = event.getPersister().getPropertyNames();
+        int[] dirty = event.getDirtyProperties();
+        String changed = dirty == null ? null : Arrays.stream(dirty)
+                .mapToObj(index -> names[index])
+                .collect(Collectors.joining(","));
+        auditTrail.offer(auditLog(event.getPersister(), event.getId(), AuditAction.UPDATE, changed));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        auditTrail.offer(auditLog(event.getPersister(), event.getId(), AuditAction.DELETE, null));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private static AuditLog auditLog(EntityPersister persister, Object id, AuditAction action, String changed) {
+        return AuditLog.builder()
+                .entityName(persister.getEntityName())
+                .entityId(String.valueOf(id))
+                .action(action)
+                .occurredAt(Instant.now())
+                .actor(AuditContext.currentUser())
+                .changedProperties(changed)
+                .build();
+    }
+}
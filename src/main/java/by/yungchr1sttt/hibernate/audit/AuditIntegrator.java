@@ -0,0 +1,68 @@
+package by.yungchr1sttt.hibernate.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подключает аудит к каждой SessionFactory (META-INF/services/org.hibernate.integrator.spi.Integrator).
+ * Настройки: hibernate.audit.enabled, hibernate.audit.queue_capacity, hibernate.audit.batch_size.
+ */
+@Slf4j
+public class AuditIntegrator implements Integrator {
+
+    public static final String ENABLED = "hibernate.audit.enabled";
+    public static final String QUEUE_CAPACITY = "hibernate.audit.queue_capacity";
+    public static final String BATCH_SIZE = "hibernate.audit.batch_size";
+
+    private static final Map<SessionFactory, AuditTrail> AUDIT_TRAILS = new ConcurrentHashMap<>();
+
+    public static Optional<AuditTrail> getAuditTrail(SessionFactory sessionFactory) {
+        return Optional.ofNullable(AUDIT_TRAILS.get(sessionFactory));
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        Map<String, Object> settings = sessionFactory.getProperties();
+        if (!ConfigurationHelper.getBoolean(ENABLED, settings, true)) {
+            return;
+        }
+        AuditTrail auditTrail = new AuditTrail(sessionFactory,
+                ConfigurationHelper.getInt(QUEUE_CAPACITY, settings, 10_000),
+                ConfigurationHelper.getInt(BATCH_SIZE, settings, 100));
+
+        AuditEventListener listener = new AuditEventListener(auditTrail);
+        EventListenerRegistry listeners = sessionFactory.getEventEngine().getListenerRegistry();
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+
+        sessionFactory.addObserver(new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryCreated(SessionFactory factory) {
+                AUDIT_TRAILS.put(factory, auditTrail);
+                auditTrail.start();
+            }
+
+            @Override
+            public void sessionFactoryClosing(SessionFactory factory) {
+                // пока фабрика ещё открыта - дописываем очередь
+                AUDIT_TRAILS.remove(factory);
+                auditTrail.stop(5, TimeUnit.SECONDS);
+            }
+        });
+    }
+}
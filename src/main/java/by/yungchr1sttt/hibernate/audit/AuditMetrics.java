@@ -0,0 +1,14 @@
+package by.yungchr1sttt.hibernate.audit;
+
+/**
+ * @param queued   событий в очереди сейчас - признак того, что writer не успевает
+ * @param dropped  событий, отброшенных из-за полной очереди
+ * @param failed   событий из батчей, которые не удалось записать
+ */
+public record AuditMetrics(long enqueued,
+                           long dropped,
+                           long written,
+                           long failed,
+                           int queued,
+                           int capacity) {
+}
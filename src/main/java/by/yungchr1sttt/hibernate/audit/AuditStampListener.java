@@ -0,0 +1,22 @@
+package by.yungchr1sttt.hibernate.audit;
+
+import by.yungchr1sttt.hibernate.entity.AuditableEntity;
+import jakarta.persistence.PrePersist;
+
+import java.time.Instant;
+
+/**
+ * Заполняет createdAt/createdBy при первом сохранении, если их не выставили вручную.
+ */
+public class AuditStampListener {
+
+    @PrePersist
+    public void stamp(AuditableEntity<?> entity) {
+        if (entity.getCreatedAt() == null) {
+            entity.setCreatedAt(Instant.now());
+        }
+        if (entity.getCreatedBy() == null) {
+            entity.setCreatedBy(AuditContext.currentUser());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package by.yungchr1sttt.hibernate.audit;
+
+import by.yungchr1sttt.hibernate.entity.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронная запись аудита: слушатели только кладут событие в ограниченную очередь ({@link #offer}
+ * не блокирует, при переполнении событие отбрасывается и считается), а фоновый поток пишет
+ * их в audit_log батчами через StatelessSession.
+ */
+@Slf4j
+public class AuditTrail {
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final SessionFactory sessionFactory;
+    private final BlockingQueue<AuditLog> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final Thread writer;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean running = true;
+
+    public AuditTrail(SessionFactory sessionFactory, int capacity, int batchSize) {
+        this.sessionFactory = sessionFactory;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.writer = Thread.ofPlatform()
+                .name("audit-writer")
+                .daemon()
+                .unstarted(this::writeLoop);
+    }
+
+    public void start() {
+        writer.start();
+    }
+
+    public boolean offer(AuditLog event) {
+        if (queue.offer(event)) {
+            enqueued.increment();
+            return true;
+        }
+        dropped.increment();
+        // логируем не каждое событие, чтобы перегрузка аудита не превратилась в перегрузку лога
+        if (dropped.sum() % 1_000 == 1) {
+            log.warn("Audit queue is full ({} events), {} events dropped so far", capacity, dropped.sum());
+        }
+        return false;
+    }
+
+    public AuditMetrics getMetrics() {
+        return new AuditMetrics(enqueued.sum(), dropped.sum(), written.sum(), failed.sum(), queue.size(), capacity);
+    }
+
+    /**
+     * Останавливает writer, дописав то, что уже в очереди.
+     */
+    public void stop(long timeout, TimeUnit unit) {
+        running = false;
+        try {
+            writer.join(unit.toMillis(timeout));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish in {} {}, {} events lost", timeout, unit, queue.size());
+        }
+        log.info("Audit trail stopped: {}", getMetrics());
+    }
+
+    private void writeLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                session.insertMultiple(batch);
+                transaction.commit();
+                written.add(batch.size());
+            } catch (RuntimeException ex) {
+                transaction.rollback();
+                throw ex;
+            }
+        } catch (RuntimeException ex) {
+            failed.add(batch.size());
+            log.error("Failed to write {} audit events", batch.size(), ex);
+        }
+    }
+}
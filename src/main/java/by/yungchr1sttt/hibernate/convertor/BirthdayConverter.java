@@ -3,24 +3,21 @@ package by.yungchr1sttt.hibernate.convertor;
 import by.yungchr1sttt.hibernate.entity.Birthday;
 import jakarta.persistence.AttributeConverter;
 
-import java.sql.Date;
-import java.util.Optional;
+import java.time.LocalDate;
 
-public class BirthdayConverter implements AttributeConverter<Birthday, Date> {
+/**
+ * Вызывается на каждую строку при гидрации и при каждом dirty check, поэтому без Optional-цепочек:
+ * колонка сразу LocalDate, Birthday - единственная аллокация.
+ */
+public class BirthdayConverter implements AttributeConverter<Birthday, LocalDate> {
 
     @Override
-    public Date convertToDatabaseColumn(Birthday birthday) {
-        return Optional.ofNullable(birthday)
-                .map(Birthday::birthDate)
-                .map(Date::valueOf)
-                .orElse(null);
+    public LocalDate convertToDatabaseColumn(Birthday birthday) {
+        return birthday == null ? null : birthday.birthDate();
     }
 
     @Override
-    public Birthday convertToEntityAttribute(Date date) {
-        return Optional.ofNullable(date)
-                .map(Date::toLocalDate)
-                .map(Birthday::new)
-                .orElse(null);
+    public Birthday convertToEntityAttribute(LocalDate date) {
+        return date == null ? null : new Birthday(date);
     }
 }
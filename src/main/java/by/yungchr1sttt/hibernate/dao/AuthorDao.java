@@ -0,0 +1,33 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.dto.AuthorBookRow;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.SharedSessionContract;
+
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class AuthorDao {
+
+    private static final AuthorDao INSTANCE = new AuthorDao();
+
+    /**
+     * Строка на каждую книгу сразу в record, без сущностей Author/Book в persistence context.
+     * Авторы без книг не попадают.
+     */
+    public List<AuthorBookRow> findAuthorBookRows(SharedSessionContract session) {
+        return session.createSelectionQuery("""
+                        select a.id, a.name, b.title
+                        from Author a
+                        join a.books b
+                        order by a.name, b.title
+                        """, AuthorBookRow.class)
+                .setReadOnly(true)
+                .list();
+    }
+
+    public static AuthorDao getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,92 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.QueryFlushMode;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Bulk DML идёт мимо persistence context: загруженные до него экземпляры остаются в сессии со старым
+ * состоянием и при следующем flush дали бы update по удалённой строке. Регионы кэша второго уровня
+ * и query cache по затронутым таблицам Hibernate инвалидирует сам (BulkOperationCleanupAction).
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BulkDeletes {
+
+    private static final int ID_CHUNK = 1000;
+
+    /**
+     * Отсоединяет управляемые экземпляры type, строк которых больше нет: один select id по тем,
+     * что уже есть в сессии, - объём работы зависит от persistence context, а не от числа удалённых строк.
+     */
+    static <T> List<T> detachDeleted(Session session, Class<T> type) {
+        List<T> managed = managed(session, type, entity -> true);
+        if (managed.isEmpty()) {
+            return managed;
+        }
+        String entityName = session.getSessionFactory().getMetamodel().entity(type).getName();
+        List<Object> ids = managed.stream().map(session::getIdentifier).toList();
+        Set<Object> alive = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+            alive.addAll(session.createSelectionQuery(
+                            "select id(e) from " + entityName + " e where id(e) in :ids", Object.class)
+                    .setParameter("ids", ids.subList(from, Math.min(from + ID_CHUNK, ids.size())))
+                    .setQueryFlushMode(QueryFlushMode.NO_FLUSH)
+                    .list());
+        }
+        List<T> deleted = managed.stream()
+                .filter(entity -> !alive.contains(session.getIdentifier(entity)))
+                .toList();
+        detach(session, deleted);
+        return deleted;
+    }
+
+    static <T> void detachIf(Session session, Class<T> type, Predicate<? super T> condition) {
+        detach(session, managed(session, type, condition));
+    }
+
+    static List<Object> managedIds(Session session, Class<?> type) {
+        return managed(session, type, entity -> true).stream()
+                .map(session::getIdentifier)
+                .toList();
+    }
+
+    /**
+     * id связанной сущности без инициализации прокси
+     */
+    static Object idOf(Session session, Object entity) {
+        return entity == null ? null : session.getSessionFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    private static <T> List<T> managed(Session session, Class<T> type, Predicate<? super T> condition) {
+        List<T> result = new ArrayList<>();
+        Map.Entry<Object, EntityEntry>[] entries = session.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal()
+                .reentrantSafeEntityEntries();
+        for (Map.Entry<Object, EntityEntry> entry : entries) {
+            if (type.isInstance(entry.getKey())) {
+                T entity = type.cast(entry.getKey());
+                if (condition.test(entity)) {
+                    result.add(entity);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void detach(Session session, List<?> entities) {
+        // detach каскадируется, часть экземпляров могла уже выйти из сессии вместе с владельцем
+        entities.stream()
+                .filter(session::contains)
+                .forEach(session::detach);
+    }
+}
@@ -0,0 +1,144 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.dto.ChatMember;
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import by.yungchr1sttt.hibernate.outbox.OutboxWriter;
+import by.yungchr1sttt.hibernate.pagination.KeysetOrder;
+import by.yungchr1sttt.hibernate.pagination.KeysetPage;
+import by.yungchr1sttt.hibernate.pagination.PageCursor;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.query.SelectionQuery;
+
+import java.util.List;
+import java.util.Optional;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ChatDao {
+
+    private static final ChatDao INSTANCE = new ChatDao();
+
+    private static final String MEMBERS_SELECT = """
+            select uc.id, u.id, u.username, uc.createdAt
+            from UserChat uc
+            join uc.user u
+            where uc.chat.id = :chatId
+            """;
+
+    public List<Chat> findAll(Session session) {
+        return session.createSelectionQuery("select c from Chat c order by c.name", Chat.class)
+                .setCacheable(true)
+                .setCacheRegion(QueryCacheRegions.REFERENCE)
+                .list();
+    }
+
+    /**
+     * Поиск по natural id: после первого обращения id берётся из natural-id кэша,
+     * а сама сущность - из кэша второго уровня, без запроса в БД.
+     */
+    public Optional<Chat> findByName(Session session, String name) {
+        return session.bySimpleNaturalId(Chat.class).loadOptional(name);
+    }
+
+    /**
+     * Keyset-пагинация участников чата по id или по (createdAt, id) - индексы (chat_id, id)
+     * и (chat_id, createdAt, id). Курсор привязан к порядку, курсор от другого порядка отклоняется.
+     *
+     * @param cursor {@link KeysetPage#nextCursor()} предыдущей страницы или {@code null} для первой
+     */
+    public KeysetPage<ChatMember> findMembers(SharedSessionContract session, Long chatId, KeysetOrder order,
+                                              String cursor, int pageSize) {
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor, order);
+        SelectionQuery<ChatMember> query = switch (order) {
+            case ID -> session.createSelectionQuery(MEMBERS_SELECT + """
+                            and uc.id > :afterId
+                            order by uc.id
+                            """, ChatMember.class)
+                    .setParameter("afterId", after == null ? Long.MIN_VALUE : after.id());
+            case CREATED_AT -> after == null
+                    ? session.createSelectionQuery(MEMBERS_SELECT + """
+                            and uc.createdAt is not null
+                            order by uc.createdAt, uc.id
+                            """, ChatMember.class)
+                    : session.createSelectionQuery(MEMBERS_SELECT + """
+                            and (uc.createdAt, uc.id) > (:afterCreatedAt, :afterId)
+                            order by uc.createdAt, uc.id
+                            """, ChatMember.class)
+                    .setParameter("afterCreatedAt", after.createdAt())
+                    .setParameter("afterId", after.id());
+        };
+        List<ChatMember> rows = query.setParameter("chatId", chatId)
+                .setMaxResults(pageSize + 1)
+                .setReadOnly(true)
+                .list();
+        return KeysetPage.of(rows, pageSize, last -> order == KeysetOrder.ID
+                ? PageCursor.afterId(last.userChatId())
+                : PageCursor.afterCreatedAt(last.joinedAt(), last.userChatId()));
+    }
+
+    /**
+     * Вступление в чат без загрузки чата, пользователя и их коллекций: UserChat ссылается на прокси,
+     * счётчик увеличивает {@link MemberCountListener} при flush.
+     * Экземпляр Chat, уже загруженный в эту сессию, новый счётчик не увидит - читайте {@link #countMembers}.
+     */
+    public UserChat addMember(Session session, Long chatId, Long userId) {
+        UserChat userChat = UserChat.builder()
+                .chat(session.getReference(Chat.class, chatId))
+                .user(session.getReference(User.class, userId))
+                .build();
+        session.persist(userChat);
+        return userChat;
+    }
+
+    public void removeMember(Session session, UserChat userChat) {
+        session.remove(userChat);
+    }
+
+    /**
+     * Очистка чата одним delete по chat_id, без загрузки userChats; MEMBER_LEFT в outbox пишется
+     * одним insert ... select до удаления. Загруженные в эту сессию чат и его UserChat отсоединяются.
+     *
+     * @return число удалённых UserChat
+     */
+    public int removeAllMembers(Session session, Long chatId) {
+        OutboxWriter.membersLeft(session, "uc.chat.id = :id", chatId);
+        int removed = session.createMutationQuery("delete from UserChat uc where uc.chat.id = :chatId")
+                .setParameter("chatId", chatId)
+                .executeUpdate();
+        session.createMutationQuery("update Chat c set c.memberCount = 0 where c.id = :id")
+                .setParameter("id", chatId)
+                .executeUpdate();
+
+        BulkDeletes.detachIf(session, Chat.class, chat -> chatId.equals(chat.getId()));
+        BulkDeletes.detachIf(session, UserChat.class,
+                userChat -> chatId.equals(BulkDeletes.idOf(session, userChat.getChat())));
+        return removed;
+    }
+
+    public int countMembers(SharedSessionContract session, Long chatId) {
+        return session.createSelectionQuery("select c.memberCount from Chat c where c.id = :id", Integer.class)
+                .setParameter("id", chatId)
+                .uniqueResultOptional()
+                .orElse(0);
+    }
+
+    /**
+     * Пересчёт счётчиков по фактическим UserChat: заполнение после добавления колонки или починка,
+     * если участников меняли в обход сессии (StatelessSession, SQL).
+     */
+    public int recountMembers(SharedSessionContract session) {
+        return session.createMutationQuery("""
+                        update Chat c
+                        set c.memberCount = (select count(uc) from UserChat uc where uc.chat = c)
+                        """)
+                .executeUpdate();
+    }
+
+    public static ChatDao getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,123 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.Profile;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import by.yungchr1sttt.hibernate.outbox.OutboxWriter;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CompanyDao {
+
+    private static final CompanyDao INSTANCE = new CompanyDao();
+
+    public List<Company> findAll(Session session) {
+        return session.createSelectionQuery("select c from Company c order by c.name", Company.class)
+                .setCacheable(true)
+                .setCacheRegion(QueryCacheRegions.REFERENCE)
+                .list();
+    }
+
+    /**
+     * Поиск по natural id: после первого обращения id берётся из natural-id кэша,
+     * а сама сущность - из кэша второго уровня, без запроса в БД.
+     */
+    public Optional<Company> findByName(Session session, String name) {
+        return session.bySimpleNaturalId(Company.class).loadOptional(name);
+    }
+
+    /**
+     * Добавление пользователя без загрузки компании и коллекции users: связь ставится на прокси,
+     * счётчик увеличивает {@link MemberCountListener} при flush.
+     */
+    public User addUser(Session session, Integer companyId, User user) {
+        user.setCompany(session.getReference(Company.class, companyId));
+        session.persist(user);
+        return user;
+    }
+
+    /**
+     * Удаление всех пользователей компании набором DML по множеству строк, без загрузки users:
+     * счётчики затронутых чатов, UserChat, Profile, User и счётчик компании - по одному statement.
+     * Аудит и entity-слушатели для удалённых строк не вызываются, MEMBER_LEFT в outbox пишется
+     * одним insert ... select до удаления UserChat.
+     * Загруженные в эту сессию компания, её пользователи, их профили и участия в чатах отсоединяются,
+     * как и чаты, где они состояли, - перечитайте их.
+     *
+     * @return число удалённых пользователей
+     */
+    public int removeUsers(Session session, Integer companyId) {
+        // из загруженных в сессию чатов - те, где состоят удаляемые: у них изменится memberCount
+        List<Object> loadedChatIds = BulkDeletes.managedIds(session, Chat.class);
+        Set<Object> chatIds = loadedChatIds.isEmpty() ? new HashSet<>() : new HashSet<>(session.createSelectionQuery("""
+                        select distinct uc.chat.id from UserChat uc
+                        where uc.chat.id in :chatIds and uc.user.company.id = :companyId
+                        """, Object.class)
+                .setParameter("chatIds", loadedChatIds)
+                .setParameter("companyId", companyId)
+                .list());
+        session.createMutationQuery("""
+                        update Chat c
+                        set c.memberCount = c.memberCount - (select count(uc) from UserChat uc
+                                                             where uc.chat = c and uc.user.company.id = :companyId)
+                        where c.id in (select uc.chat.id from UserChat uc where uc.user.company.id = :companyId)
+                        """)
+                .setParameter("companyId", companyId)
+                .executeUpdate();
+        OutboxWriter.membersLeft(session, "uc.user.company.id = :id", companyId);
+        session.createMutationQuery("""
+                        delete from UserChat uc
+                        where uc.user.id in (select u.id from User u where u.company.id = :companyId)
+                        """)
+                .setParameter("companyId", companyId)
+                .executeUpdate();
+        session.createMutationQuery("""
+                        delete from Profile p
+                        where p.user.id in (select u.id from User u where u.company.id = :companyId)
+                        """)
+                .setParameter("companyId", companyId)
+                .executeUpdate();
+        int removed = session.createMutationQuery("delete from User u where u.company.id = :companyId")
+                .setParameter("companyId", companyId)
+                .executeUpdate();
+        session.createMutationQuery("update Company c set c.memberCount = 0 where c.id = :id")
+                .setParameter("id", companyId)
+                .executeUpdate();
+
+        BulkDeletes.detachDeleted(session, UserChat.class);
+        BulkDeletes.detachIf(session, Chat.class, chat -> chatIds.contains(chat.getId()));
+        BulkDeletes.detachIf(session, Company.class, company -> companyId.equals(company.getId()));
+        BulkDeletes.detachDeleted(session, User.class);
+        BulkDeletes.detachDeleted(session, Profile.class);
+        return removed;
+    }
+
+    public int countMembers(SharedSessionContract session, Integer companyId) {
+        return session.createSelectionQuery("select c.memberCount from Company c where c.id = :id", Integer.class)
+                .setParameter("id", companyId)
+                .uniqueResultOptional()
+                .orElse(0);
+    }
+
+    public int recountMembers(SharedSessionContract session) {
+        return session.createMutationQuery("""
+                        update Company c
+                        set c.memberCount = (select count(u) from User u where u.company = c)
+                        """)
+                .executeUpdate();
+    }
+
+    public static CompanyDao getInstance() {
+        return INSTANCE;
+    }
+}
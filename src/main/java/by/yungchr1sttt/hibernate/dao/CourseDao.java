@@ -0,0 +1,89 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.entity.Course;
+import by.yungchr1sttt.hibernate.entity.Student;
+import by.yungchr1sttt.hibernate.entity.StudentProfile;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+
+import java.util.List;
+import java.util.Optional;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CourseDao {
+
+    private static final CourseDao INSTANCE = new CourseDao();
+
+    public List<Course> findAll(Session session) {
+        return session.createSelectionQuery("select c from Course c order by c.name", Course.class)
+                .setCacheable(true)
+                .setCacheRegion(QueryCacheRegions.REFERENCE)
+                .list();
+    }
+
+    public Optional<Course> findByName(Session session, String name) {
+        return session.createSelectionQuery("select c from Course c where c.name = :name", Course.class)
+                .setParameter("name", name)
+                .setCacheable(true)
+                .setCacheRegion(QueryCacheRegions.REFERENCE)
+                .uniqueResultOptional();
+    }
+
+    /**
+     * Запись студента без загрузки курса и коллекции students: связь ставится на прокси,
+     * счётчик увеличивает {@link MemberCountListener} при flush.
+     */
+    public Student addStudent(Session session, Integer courseId, Student student) {
+        student.setCourse(session.getReference(Course.class, courseId));
+        session.persist(student);
+        return student;
+    }
+
+    /**
+     * Удаление студентов курса вместе с их StudentProfile двумя delete, без загрузки students.
+     * Загруженные в эту сессию курс, его студенты и их профили отсоединяются.
+     *
+     * @return число удалённых студентов
+     */
+    public int removeStudents(Session session, Integer courseId) {
+        session.createMutationQuery("""
+                        delete from StudentProfile sp
+                        where sp.student.id in (select s.id from Student s where s.course.id = :courseId)
+                        """)
+                .setParameter("courseId", courseId)
+                .executeUpdate();
+        int removed = session.createMutationQuery("delete from Student s where s.course.id = :courseId")
+                .setParameter("courseId", courseId)
+                .executeUpdate();
+        session.createMutationQuery("update Course c set c.memberCount = 0 where c.id = :id")
+                .setParameter("id", courseId)
+                .executeUpdate();
+
+        BulkDeletes.detachIf(session, Course.class, course -> courseId.equals(course.getId()));
+        BulkDeletes.detachIf(session, Student.class,
+                student -> courseId.equals(BulkDeletes.idOf(session, student.getCourse())));
+        BulkDeletes.detachDeleted(session, StudentProfile.class);
+        return removed;
+    }
+
+    public int countMembers(SharedSessionContract session, Integer courseId) {
+        return session.createSelectionQuery("select c.memberCount from Course c where c.id = :id", Integer.class)
+                .setParameter("id", courseId)
+                .uniqueResultOptional()
+                .orElse(0);
+    }
+
+    public int recountMembers(SharedSessionContract session) {
+        return session.createMutationQuery("""
+                        update Course c
+                        set c.memberCount = (select count(s) from Student s where s.course = c)
+                        """)
+                .executeUpdate();
+    }
+
+    public static CourseDao getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,27 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+
+/**
+ * Подключает {@link MemberCountListener} к каждой SessionFactory
+ * (META-INF/services/org.hibernate.integrator.spi.Integrator).
+ */
+public class MemberCountIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        MemberCountListener listener = new MemberCountListener();
+        EventListenerRegistry listeners = sessionFactory.getEventEngine().getListenerRegistry();
+        listeners.appendListeners(EventType.POST_INSERT, listener);
+        listeners.appendListeners(EventType.POST_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_DELETE, listener);
+        listeners.appendListeners(EventType.FLUSH, listener);
+        listeners.appendListeners(EventType.AUTO_FLUSH, listener);
+    }
+}
@@ -0,0 +1,181 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.entity.Student;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ведёт memberCount у Chat, Company и Course по вставкам, удалениям и переносам UserChat, User
+ * и Student, каким бы путём они ни попали в сессию: DAO, хелперы сущностей или каскад.
+ * Изменения копятся за flush и в его конце пишутся атомарным {@code memberCount = memberCount + ?}
+ * по одной строке, так что до flush счётчик в БД прежний. Запись кэша второго уровня для этой строки
+ * блокируется до конца транзакции, остальной регион не трогается. StatelessSession (её события
+ * приходят без сессии) и bulk-DML счётчики ведут сами.
+ */
+@Slf4j
+class MemberCountListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    private static final String COUNTER = "memberCount";
+
+    private final Map<SessionImplementor, Counters> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        int index = membershipIndex(event.getEntity(), event.getPersister());
+        if (index >= 0) {
+            change(event.getSession(), event.getPersister(), index, event.getState()[index], 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        int index = membershipIndex(event.getEntity(), event.getPersister());
+        if (index < 0 || event.getOldState() == null) {
+            return;
+        }
+        Object before = event.getOldState()[index];
+        Object after = event.getState()[index];
+        if (!Objects.equals(idOf(event.getSession(), before), idOf(event.getSession(), after))) {
+            change(event.getSession(), event.getPersister(), index, before, -1);
+            change(event.getSession(), event.getPersister(), index, after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        int index = membershipIndex(event.getEntity(), event.getPersister());
+        if (index >= 0) {
+            change(event.getSession(), event.getPersister(), index, event.getDeletedState()[index], -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // слушатели добавлены после стандартных: сюда приходим, когда flush уже выполнил вставки и удаления
+    @Override
+    public void onFlush(FlushEvent event) {
+        write(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        write(event.getSession());
+    }
+
+    /**
+     * Индекс связи с владельцем счётчика или -1.
+     */
+    private static int membershipIndex(Object entity, EntityPersister persister) {
+        String membership = switch (entity) {
+            case UserChat ignored -> "chat";
+            case User ignored -> "company";
+            case Student ignored -> "course";
+            default -> null;
+        };
+        return membership == null ? -1 : persister.getPropertyIndex(membership);
+    }
+
+    private void change(EventSource session, EntityPersister persister, int index, Object owner, int delta) {
+        if (session == null || owner == null) {
+            return;
+        }
+        if (!session.isTransactionInProgress()) {
+            log.warn("{} change of {} outside of a transaction is not counted", COUNTER, persister.getEntityName());
+            return;
+        }
+        String ownerName = ((EntityType) persister.getPropertyTypes()[index]).getAssociatedEntityName();
+        EntityPersister ownerPersister = session.getFactory().getMappingMetamodel().getEntityDescriptor(ownerName);
+        pending.computeIfAbsent(session, this::register).deltas
+                .merge(new Counter(ownerPersister, idOf(session, owner)), delta, Integer::sum);
+    }
+
+    private static Object idOf(EventSource session, Object entity) {
+        // прокси не инициализируется - id берётся из него
+        return entity == null ? null : session.getFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    private Counters register(SessionImplementor session) {
+        Counters counters = new Counters();
+        // на случай flush, после которого наши слушатели не вызывались
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::write);
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> {
+            pending.remove(session);
+            counters.locks.forEach(lock -> lock.access().unlockItem(completed, lock.key(), lock.lock()));
+        });
+        return counters;
+    }
+
+    private void write(SessionImplementor session) {
+        Counters counters = pending.get(session);
+        if (counters == null || counters.deltas.isEmpty()) {
+            return;
+        }
+        Map<Counter, Integer> deltas = new LinkedHashMap<>(counters.deltas);
+        counters.deltas.clear();
+        deltas.forEach((counter, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            AbstractEntityPersister persister = (AbstractEntityPersister) counter.persister();
+            EntityDataAccess access = persister.getCacheAccessStrategy();
+            if (access != null) {
+                Object key = access.generateCacheKey(counter.id(), persister, session.getFactory(),
+                        session.getTenantIdentifier());
+                counters.locks.add(new CacheLock(access, key, access.lockItem(session, key, null)));
+            }
+            String column = persister.getPropertyColumnNames(COUNTER)[0];
+            String sql = "update " + persister.getTableName() + " set " + column + " = " + column + " + ? where "
+                    + persister.getIdentifierColumnNames()[0] + " = ?";
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setInt(1, delta);
+                    statement.setObject(2, counter.id());
+                    statement.executeUpdate();
+                }
+            });
+        });
+    }
+
+    private record Counter(EntityPersister persister, Object id) {
+    }
+
+    private record CacheLock(EntityDataAccess access, Object key, SoftLock lock) {
+    }
+
+    private static final class Counters {
+        private final Map<Counter, Integer> deltas = new LinkedHashMap<>();
+        private final List<CacheLock> locks = new ArrayList<>();
+    }
+}
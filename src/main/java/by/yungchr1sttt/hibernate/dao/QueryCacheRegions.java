@@ -0,0 +1,13 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Регионы кэша запросов, их размер и TTL задаются в ehcache.xml.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class QueryCacheRegions {
+
+    public static final String REFERENCE = "query.reference";
+}
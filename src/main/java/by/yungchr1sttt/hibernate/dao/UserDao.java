@@ -0,0 +1,115 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.dto.BirthDateRange;
+import by.yungchr1sttt.hibernate.dto.UserSummary;
+import by.yungchr1sttt.hibernate.entity.Birthday;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.pagination.KeysetOrder;
+import by.yungchr1sttt.hibernate.pagination.KeysetPage;
+import by.yungchr1sttt.hibernate.pagination.PageCursor;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+
+import java.util.List;
+import java.util.Optional;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class UserDao {
+
+    private static final UserDao INSTANCE = new UserDao();
+
+    /**
+     * Поиск по natural id: после первого обращения id берётся из natural-id кэша,
+     * а сама сущность - из кэша второго уровня, без запроса в БД.
+     */
+    public Optional<User> findByUsername(Session session, String username) {
+        return session.bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    /**
+     * Проекция для списков: username и название компании сразу в record, без сущностей
+     * в persistence context. Подходит и для StatelessSession, см. HibernateUtil.fromReadOnlySession.
+     */
+    public List<UserSummary> findSummaries(SharedSessionContract session) {
+        return session.createSelectionQuery("""
+                        select u.id, u.username, c.name
+                        from User u
+                        left join u.company c
+                        order by u.username
+                        """, UserSummary.class)
+                .setReadOnly(true)
+                .list();
+    }
+
+    public List<UserSummary> findSummariesByCompany(SharedSessionContract session, String companyName) {
+        return session.createSelectionQuery("""
+                        select u.id, u.username, c.name
+                        from User u
+                        join u.company c
+                        where c.name = :companyName
+                        order by u.username
+                        """, UserSummary.class)
+                .setParameter("companyName", companyName)
+                .setReadOnly(true)
+                .list();
+    }
+
+    /**
+     * Пользователи с датой рождения в диапазоне, например {@code BirthDateRange.ofAge(18, 25)}.
+     * Фильтр и сортировка по birth_date - range scan по индексу users_birth_date_idx.
+     */
+    public List<UserSummary> findSummariesByBirthDate(SharedSessionContract session, BirthDateRange range) {
+        return session.createSelectionQuery("""
+                        select u.id, u.username, c.name
+                        from User u
+                        left join u.company c
+                        where u.personalInfo.birthDate between :from and :to
+                        order by u.personalInfo.birthDate, u.id
+                        """, UserSummary.class)
+                .setParameter("from", new Birthday(range.from()))
+                .setParameter("to", new Birthday(range.to()))
+                .setReadOnly(true)
+                .list();
+    }
+
+    public long countByBirthDate(SharedSessionContract session, BirthDateRange range) {
+        return session.createSelectionQuery("""
+                        select count(u)
+                        from User u
+                        where u.personalInfo.birthDate between :from and :to
+                        """, Long.class)
+                .setParameter("from", new Birthday(range.from()))
+                .setParameter("to", new Birthday(range.to()))
+                .getSingleResult();
+    }
+
+    /**
+     * Keyset-пагинация пользователей компании по id: {@code u.id > :afterId} по индексу (company_id, id)
+     * вместо OFFSET, поэтому страница 10 000 стоит столько же, сколько первая.
+     *
+     * @param cursor {@link KeysetPage#nextCursor()} предыдущей страницы или {@code null} для первой
+     */
+    public KeysetPage<UserSummary> findPageByCompany(SharedSessionContract session, Integer companyId,
+                                                     String cursor, int pageSize) {
+        long afterId = cursor == null ? Long.MIN_VALUE : PageCursor.decode(cursor, KeysetOrder.ID).id();
+        List<UserSummary> rows = session.createSelectionQuery("""
+                        select u.id, u.username, c.name
+                        from User u
+                        join u.company c
+                        where c.id = :companyId and u.id > :afterId
+                        order by u.id
+                        """, UserSummary.class)
+                .setParameter("companyId", companyId)
+                .setParameter("afterId", afterId)
+                .setMaxResults(pageSize + 1)
+                .setReadOnly(true)
+                .list();
+        return KeysetPage.of(rows, pageSize, last -> PageCursor.afterId(last.id()));
+    }
+
+    public static UserDao getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,4 @@
+package by.yungchr1sttt.hibernate.dto;
+
+public record AuthorBookRow(Long authorId, String authorName, String bookTitle) {
+}
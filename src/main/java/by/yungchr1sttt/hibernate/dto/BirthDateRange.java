@@ -0,0 +1,31 @@
+package by.yungchr1sttt.hibernate.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Диапазон дат рождения, обе границы включительно. Возрастная группа переводится в даты один раз,
+ * чтобы в БД уйти индексируемым {@code birth_date between ? and ?}, а не считать возраст по каждой строке.
+ */
+public record BirthDateRange(LocalDate from, LocalDate to) {
+
+    public BirthDateRange {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Empty birth date range: " + from + " > " + to);
+        }
+    }
+
+    public static BirthDateRange ofAge(int minAge, int maxAge) {
+        return ofAge(minAge, maxAge, LocalDate.now());
+    }
+
+    /**
+     * Полных лет от {@code minAge} до {@code maxAge} включительно на дату {@code today}:
+     * самому старшему ещё не исполнилось maxAge + 1, самому младшему уже исполнилось minAge.
+     */
+    public static BirthDateRange ofAge(int minAge, int maxAge, LocalDate today) {
+        if (minAge < 0 || minAge > maxAge) {
+            throw new IllegalArgumentException("Invalid age bracket " + minAge + ".." + maxAge);
+        }
+        return new BirthDateRange(today.minusYears(maxAge + 1L).plusDays(1), today.minusYears(minAge));
+    }
+}
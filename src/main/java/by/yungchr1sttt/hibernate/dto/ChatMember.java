@@ -0,0 +1,6 @@
+package by.yungchr1sttt.hibernate.dto;
+
+import java.time.Instant;
+
+public record ChatMember(Long userChatId, Long userId, String username, Instant joinedAt) {
+}
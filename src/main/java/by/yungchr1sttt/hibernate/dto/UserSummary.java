@@ -0,0 +1,4 @@
+package by.yungchr1sttt.hibernate.dto;
+
+public record UserSummary(Long id, String username, String companyName) {
+}
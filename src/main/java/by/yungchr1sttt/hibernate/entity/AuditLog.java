@@ -0,0 +1,43 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import by.yungchr1sttt.hibernate.audit.AuditAction;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "audit_log", indexes = @Index(name = "audit_log_entity_idx", columnList = "entityName, entityId"))
+public class AuditLog {
+
+    // sequence, а не IDENTITY: иначе Hibernate не может батчить вставки
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_gen")
+    @SequenceGenerator(name = "audit_log_gen", sequenceName = "audit_log_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false)
+    private String entityName;
+
+    @Column(nullable = false)
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AuditAction action;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    private String actor;
+
+    @Column(length = 1000)
+    private String changedProperties;
+}
@@ -1,7 +1,9 @@
 package by.yungchr1sttt.hibernate.entity;
 
-import jakarta.persistence.Column;
+import by.yungchr1sttt.hibernate.audit.AuditStampListener;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,9 +13,20 @@ import java.time.Instant;
 @Getter
 @Setter
 @MappedSuperclass
+@EntityListeners(AuditStampListener.class)
 public abstract class AuditableEntity<T extends Serializable> implements BaseEntity<T> {
 
     private Instant createdAt;
 
     private String createdBy;
+
+    // id объявляет наследник; @Transient - иначе энхансер не найдёт здесь поле id и пропустит класс,
+    // и изменения createdAt/createdBy перестанут попадать в dirty tracking
+    @Transient
+    @Override
+    public abstract T getId();
+
+    @Transient
+    @Override
+    public abstract void setId(T id);
 }
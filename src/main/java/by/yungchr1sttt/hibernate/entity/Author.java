@@ -23,7 +23,8 @@ import java.util.List;
 )
 public class Author {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_gen")
+    @SequenceGenerator(name = "authors_gen", sequenceName = "authors_seq", allocationSize = 20)
     private Long id;
 
     private String name;
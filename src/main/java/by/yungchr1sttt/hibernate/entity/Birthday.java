@@ -1,10 +1,15 @@
 package by.yungchr1sttt.hibernate.entity;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
-public record Birthday(LocalDate birthDate) {
+public record Birthday(LocalDate birthDate) implements Serializable {
     public long getAge() {
-        return ChronoUnit.YEARS.between(birthDate, LocalDate.now());
+        return getAge(LocalDate.now());
+    }
+
+    public long getAge(LocalDate today) {
+        return ChronoUnit.YEARS.between(birthDate, today);
     }
 }
@@ -12,11 +12,12 @@ import lombok.NoArgsConstructor;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "books")
+@Table(name = "books", indexes = @Index(name = "books_author_id_idx", columnList = "author_id"))
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_gen")
+    @SequenceGenerator(name = "books_gen", sequenceName = "books_seq", allocationSize = 50)
     private Long id;
 
     private String title;
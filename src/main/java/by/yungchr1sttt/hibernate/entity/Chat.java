@@ -6,6 +6,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,18 +19,30 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.chat")
+@NaturalIdCache(region = "naturalid.chat")
 public class Chat implements BaseEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_gen")
+    @SequenceGenerator(name = "chat_gen", sequenceName = "chat_seq", allocationSize = 20)
     private Long id;
 
+    @Version
+    private Long version;
+
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String name;
 
     @Builder.Default
     @OneToMany(mappedBy = "chat")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.chat.userChats")
     private List<UserChat> userChats = new ArrayList<>();
 
-
+    // меняется только атомарным update (MemberCountListener, bulk-методы ChatDao),
+    // поэтому не пишется при flush сущности
+    @Column(nullable = false, updatable = false)
+    private int memberCount;
 }
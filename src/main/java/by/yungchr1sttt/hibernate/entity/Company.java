@@ -2,6 +2,11 @@ package by.yungchr1sttt.hibernate.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.HashSet;
 import java.util.List;
@@ -14,21 +19,40 @@ import java.util.Set;
 @ToString(exclude = "users")
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.company")
+@NaturalIdCache(region = "naturalid.company")
 public class Company {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "company_gen")
+    @SequenceGenerator(name = "company_gen", sequenceName = "company_seq", allocationSize = 20)
     private Integer id;
 
+    // optimistic lock, см. OptimisticRetryExecutor. users - обратная сторона связи и версию не меняет:
+    // если важен состав всего агрегата, нужен session.lock(company, LockMode.OPTIMISTIC_FORCE_INCREMENT)
+    @Version
+    private Long version;
+
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String name;
 
     @Builder.Default
     @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.company.users")
     private Set<User> users = new HashSet<>();
 
+    // меняется только атомарным update (MemberCountListener, bulk-методы CompanyDao),
+    // поэтому не пишется при flush сущности
+    @Column(nullable = false, updatable = false)
+    private int memberCount;
+
     public void addUser(User user) {
-        users.add(user);
         user.setCompany(this);
+        // связью владеет User.company - незагруженную коллекцию не инициализируем ради одного элемента
+        if (Hibernate.isInitialized(users)) {
+            users.add(user);
+        }
     }
 }
@@ -3,12 +3,17 @@ package by.yungchr1sttt.hibernate.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.course")
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString(exclude = "students")
@@ -17,18 +22,31 @@ import java.util.List;
 public class Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_gen")
+    @SequenceGenerator(name = "courses_gen", sequenceName = "courses_seq", allocationSize = 20)
     private Integer id;
 
+    @Version
+    private Long version;
+
     @Column(name = "course_name", nullable = false, unique = true)
     private String name;
 
     @Builder.Default
     @OneToMany(mappedBy = "course",cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reference.course.students")
     private List<Student> students = new ArrayList<>();
 
+    // меняется только атомарным update (MemberCountListener, bulk-методы CourseDao),
+    // поэтому не пишется при flush сущности
+    @Column(nullable = false, updatable = false)
+    private int memberCount;
+
     public void addStudent(Student student) {
-        students.add(student);
         student.setCourse(this);
+        // связью владеет Student.course - незагруженную коллекцию не инициализируем ради одного элемента
+        if (Hibernate.isInitialized(students)) {
+            students.add(student);
+        }
     }
 }
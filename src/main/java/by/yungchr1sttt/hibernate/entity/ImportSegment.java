@@ -0,0 +1,36 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сегмент файла, закоммиченный {@link by.yungchr1sttt.hibernate.importer.UserImporter}: строка вставляется
+ * в транзакции самого сегмента. Границы сегментов зависят от размера файла и сегмента, поэтому оба входят в ключ.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "import_segment", uniqueConstraints = @UniqueConstraint(
+        name = "import_segment_source_key",
+        columnNames = {"source", "fileSize", "segmentSize", "segmentIndex"}))
+public class ImportSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_segment_gen")
+    @SequenceGenerator(name = "import_segment_gen", sequenceName = "import_segment_seq", allocationSize = 20)
+    private Long id;
+
+    @Column(nullable = false, length = 1000)
+    private String source;
+
+    private long fileSize;
+
+    private long segmentSize;
+
+    private int segmentIndex;
+}
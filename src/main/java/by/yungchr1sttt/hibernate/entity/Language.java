@@ -0,0 +1,5 @@
+package by.yungchr1sttt.hibernate.entity;
+
+public enum Language {
+    JAVA, KOTLIN, PYTHON, GO;
+}
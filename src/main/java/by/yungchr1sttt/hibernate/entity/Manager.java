@@ -0,0 +1,21 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(callSuper = true)
+@SuperBuilder
+@Entity
+@DiscriminatorValue("MANAGER")
+public class Manager extends User {
+
+    private String project;
+}
@@ -0,0 +1,57 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import by.yungchr1sttt.hibernate.outbox.OutboxEventType;
+import by.yungchr1sttt.hibernate.outbox.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_event", indexes = {
+        // выборка диспетчера: pending в порядке id
+        @Index(name = "outbox_event_status_id_idx", columnList = "status, id"),
+        // проверка, что перед захваченными событиями чата нет более ранних
+        @Index(name = "outbox_event_chat_id_id_idx", columnList = "chatId, id")
+})
+public class OutboxEvent {
+
+    // id задаёт порядок событий чата: allocationSize = 1, чтобы он совпадал с порядком вставки
+    // и между JVM (блоки pooled-lo разные узлы раздают вперемешку)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_gen")
+    @SequenceGenerator(name = "outbox_event_gen", sequenceName = "outbox_event_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEventType type;
+
+    @Column(nullable = false)
+    private Long chatId;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
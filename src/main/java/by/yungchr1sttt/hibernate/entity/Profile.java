@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class Profile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profile_gen")
+    @SequenceGenerator(name = "profile_gen", sequenceName = "profile_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -0,0 +1,24 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(callSuper = true)
+@SuperBuilder
+@Entity
+@DiscriminatorValue("PROGRAMMER")
+public class Programmer extends User {
+
+    @Enumerated(EnumType.STRING)
+    private Language language;
+}
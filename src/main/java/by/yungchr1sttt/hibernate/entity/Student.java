@@ -5,17 +5,22 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member.student")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "students")
+@Table(name = "students", indexes = @Index(name = "students_course_id_idx", columnList = "course_id"))
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_gen")
+    @SequenceGenerator(name = "students_gen", sequenceName = "students_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "student_name")
@@ -25,7 +30,7 @@ public class Student {
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
-    @OneToOne(cascade = CascadeType.ALL, mappedBy = "student")
+    @OneToOne(cascade = CascadeType.ALL, mappedBy = "student", fetch = FetchType.LAZY)
     private StudentProfile studentProfile;
 
     public void addStudentProfile(StudentProfile studentProfile) {
@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class StudentProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_profile_gen")
+    @SequenceGenerator(name = "student_profile_gen", sequenceName = "student_profile_seq", allocationSize = 50)
     private Long id;
 
     private String grade;
@@ -3,6 +3,11 @@ package by.yungchr1sttt.hibernate.entity;
 import by.yungchr1sttt.hibernate.convertor.BirthdayConverter;
 import jakarta.persistence.*;
 import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -14,15 +19,30 @@ import java.util.List;
 @AllArgsConstructor
 @ToString(exclude = {"company", "profile", "userChats"})
 @EqualsAndHashCode(of = "username")
-@Builder
+@SuperBuilder
 @Entity
-@Table(name = "users", schema = "public")
-@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member.user")
+@NaturalIdCache(region = "naturalid.user")
+@Table(name = "users", schema = "public",
+        indexes = {
+                // keyset-пагинация пользователей компании: where company_id = ? and id > ? order by id
+                @Index(name = "users_company_id_id_idx", columnList = "company_id, id"),
+                // возрастные выборки: birth_date between ? and ?
+                @Index(name = "users_birth_date_idx", columnList = "birth_date")
+        })
+// SINGLE_TABLE: find(User.class, id) и "from User" идут в одну таблицу без UNION/join.
+// JOINED и TABLE_PER_CLASS включаются настройкой hibernate.mapping.user_inheritance, см. HibernateUtil
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "type", length = 16)
+@DiscriminatorValue("USER")
 public class User {
     @Id
     @GeneratedValue(generator = "user_gen",strategy = GenerationType.SEQUENCE)
+    @SequenceGenerator(name = "user_gen", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
+    @NaturalId
     @Column(unique = true ,nullable = false)
     private String username;
     //@AttributeOverride(name = "birthDate", column = @Column(name = "birth_date"))
@@ -35,7 +55,8 @@ public class User {
     @JoinColumn(name = "company_id")
     private Company company;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
+    // без enhancement обратная сторона @OneToOne всегда грузится сразу, с ним - по обращению
+    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Profile profile;
 
     @Builder.Default
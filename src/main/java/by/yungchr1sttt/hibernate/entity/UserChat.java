@@ -5,19 +5,31 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member.userChat")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users_chat")
+@Table(name = "users_chat", indexes = {
+        // keyset-пагинация участников чата по id и по времени вступления
+        @Index(name = "users_chat_chat_id_id_idx", columnList = "chat_id, id"),
+        @Index(name = "users_chat_chat_id_created_at_idx", columnList = "chat_id, createdAt, id"),
+        // чаты пользователя; chat_id вторым - проверка членства без обращения к таблице
+        @Index(name = "users_chat_user_id_chat_id_idx", columnList = "user_id, chat_id")
+})
 public class UserChat extends AuditableEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_chat_gen")
+    @SequenceGenerator(name = "users_chat_gen", sequenceName = "users_chat_seq", allocationSize = 100)
     private Long id;
 
     @ManyToOne
@@ -34,14 +46,19 @@ public class UserChat extends AuditableEntity<Long> {
 //    @Column(name = "created_by")
 //    private String createdBy;
 
+    // связью владеет UserChat - незагруженные коллекции не инициализируем ради одного элемента
     public void setUser(User user) {
         this.user = user;
-        user.getUserChats().add(this);
+        if (Hibernate.isInitialized(user.getUserChats())) {
+            user.getUserChats().add(this);
+        }
     }
 
     public void setChat(Chat chat) {
         this.chat = chat;
-        chat.getUserChats().add(this);
+        if (Hibernate.isInitialized(chat.getUserChats())) {
+            chat.getUserChats().add(this);
+        }
     }
 
 }
@@ -0,0 +1,111 @@
+package by.yungchr1sttt.hibernate.export;
+
+import by.yungchr1sttt.hibernate.entity.Birthday;
+
+public enum ExportFormat {
+
+    NDJSON {
+        @Override
+        public String header() {
+            return null;
+        }
+
+        @Override
+        public void appendRow(StringBuilder line, Object[] row) {
+            line.append('{');
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append('"').append(COLUMNS[i]).append("\":");
+                Object value = value(row[i]);
+                if (value == null) {
+                    line.append("null");
+                } else if (value instanceof Number) {
+                    line.append(value);
+                } else {
+                    appendJsonString(line, value.toString());
+                }
+            }
+            line.append("}\n");
+        }
+    },
+
+    CSV {
+        @Override
+        public String header() {
+            return String.join(",", COLUMNS) + "\n";
+        }
+
+        @Override
+        public void appendRow(StringBuilder line, Object[] row) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                Object value = value(row[i]);
+                if (value != null) {
+                    appendCsvField(line, value.toString());
+                }
+            }
+            line.append('\n');
+        }
+    };
+
+    // Порядок совпадает с select в UserExporter
+    static final String[] COLUMNS = {"id", "username", "first_name", "last_name", "birth_date", "role", "company"};
+
+    public abstract String header();
+
+    public abstract void appendRow(StringBuilder line, Object[] row);
+
+    private static Object value(Object value) {
+        if (value instanceof Birthday birthday) {
+            return birthday.birthDate();
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value;
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append("\\u%04x".formatted((int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    private static void appendCsvField(StringBuilder line, String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,16 @@
+package by.yungchr1sttt.hibernate.export;
+
+import java.time.Duration;
+
+public record ExportResult(long rows, long bytes, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+
+    public double megabytesPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : bytes / (1024.0 * 1024.0) * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,94 @@
+package by.yungchr1sttt.hibernate.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Выгрузка всех пользователей в NDJSON/CSV с постоянным потреблением памяти:
+ * StatelessSession (нет first-level cache), forward-only курсор с fetch size
+ * и проекция в Object[] вместо управляемых сущностей.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UserExporter {
+
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String EXPORT_QUERY = """
+            select u.id, u.username, u.personalInfo.firstName, u.personalInfo.lastName,
+                   u.personalInfo.birthDate, u.role, c.name
+            from User u
+            left join u.company c
+            """;
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    public UserExporter(SessionFactory sessionFactory) {
+        this(sessionFactory, DEFAULT_FETCH_SIZE);
+    }
+
+    public ExportResult export(Path target, ExportFormat format) throws IOException {
+        return export(FileChannel.open(target, CREATE, TRUNCATE_EXISTING, WRITE), format, target.toString());
+    }
+
+    /**
+     * Выгрузка в канал; канал закрывается после выгрузки.
+     */
+    ExportResult export(WritableByteChannel channel, ExportFormat format, String target) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        long bytes;
+
+        try (ChannelWriter writer = new ChannelWriter(channel, BUFFER_SIZE);
+             StatelessSession session = sessionFactory.openStatelessSession()) {
+            // PostgreSQL отдаёт строки порциями (fetch size) только внутри транзакции
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Object[]> results = session.createSelectionQuery(EXPORT_QUERY, Object[].class)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                if (format.header() != null) {
+                    writer.write(format.header());
+                }
+                StringBuilder line = new StringBuilder(256);
+                while (results.next()) {
+                    line.setLength(0);
+                    format.appendRow(line, results.get());
+                    writer.write(line);
+                    rows++;
+                }
+                transaction.commit();
+            } catch (RuntimeException | IOException ex) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw ex;
+            }
+            writer.flush();
+            bytes = writer.getBytesWritten();
+        }
+
+        ExportResult result = new ExportResult(rows, bytes, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Exported {} users ({} bytes) to {} in {} ms: {} rows/sec, {} MB/sec", result.rows(), result.bytes(),
+                target, result.elapsed().toMillis(), Math.round(result.rowsPerSecond()),
+                "%.1f".formatted(result.megabytesPerSecond()));
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package by.yungchr1sttt.hibernate.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * pooled-lo без общего монитора: значение из sequence - нижняя граница блока [lo, lo + incrementSize),
+ * id внутри блока раздаются CAS-инкрементом, и только выборка нового блока идёт под lock.
+ * Штатный PooledLoOptimizer держит synchronized на каждом generate, в том числе во время nextval,
+ * из-за чего конкурирующие сессии выстраиваются в очередь, а виртуальные потоки пиннятся.
+ * Подключается через hibernate.id.optimizer.pooled.preferred; мультитенантные блоки не разделяются.
+ */
+public class ConcurrentPooledLoOptimizer implements Optimizer {
+
+    private final Class<?> returnClass;
+    private final int incrementSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private volatile Block current;
+    private volatile IntegralDataTypeHolder lastSourceValue;
+
+    public ConcurrentPooledLoOptimizer(Class<?> returnClass, int incrementSize) {
+        if (returnClass != Long.class && returnClass != Integer.class) {
+            throw new HibernateException("Unsupported identifier type for pooled-lo: " + returnClass.getName());
+        }
+        if (incrementSize < 1) {
+            throw new HibernateException("increment size cannot be less than 1");
+        }
+        this.returnClass = returnClass;
+        this.incrementSize = incrementSize;
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long value = block.next().getAndIncrement();
+                if (value < block.hi()) {
+                    return convert(value);
+                }
+            }
+            refillLock.lock();
+            try {
+                // блок мог смениться, пока ждали lock - тогда просто берём из нового
+                if (current == block) {
+                    IntegralDataTypeHolder lo = callback.getNextValue();
+                    long low = lo.makeValue().longValue();
+                    lastSourceValue = lo;
+                    current = new Block(low + incrementSize, new AtomicLong(low));
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        return lastSourceValue;
+    }
+
+    @Override
+    public int getIncrementSize() {
+        return incrementSize;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+
+    private Serializable convert(long value) {
+        if (returnClass == Long.class) {
+            return value;
+        }
+        return Math.toIntExact(value);
+    }
+
+    private record Block(long hi, AtomicLong next) {
+    }
+}
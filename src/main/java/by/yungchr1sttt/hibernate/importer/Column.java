@@ -0,0 +1,49 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Поля записи, которые понимает импорт. Имена совпадают с колонками выгрузки UserExporter,
+ * так что её CSV/NDJSON загружаются без преобразований; id и неизвестные поля пропускаются.
+ */
+enum Column {
+
+    USERNAME("username"),
+    FIRST_NAME("first_name"),
+    LAST_NAME("last_name"),
+    BIRTH_DATE("birth_date"),
+    ROLE("role"),
+    COMPANY("company");
+
+    private static final Column[] VALUES = values();
+
+    private final String header;
+    private final byte[] key;
+
+    Column(String header) {
+        this.header = header;
+        this.key = header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static Column byHeader(String header) {
+        for (Column column : VALUES) {
+            if (column.header.equals(header)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ключ NDJSON сравнивается прямо с байтами буфера, без создания строки.
+     */
+    static Column byKey(ByteBuffer buffer, int start, int end) {
+        for (Column column : VALUES) {
+            if (RecordFields.equalsBytes(buffer, start, end, column.key, column.key.length)) {
+                return column;
+            }
+        }
+        return null;
+    }
+}
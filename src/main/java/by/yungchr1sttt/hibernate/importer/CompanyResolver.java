@@ -0,0 +1,58 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Общий для всех потоков импорта справочник name -> id компании. Заполняется одним запросом
+ * перед стартом; отсутствующая компания создаётся в отдельной короткой транзакции,
+ * чтобы её id сразу был виден остальным потокам и не откатывался вместе с сегментом.
+ */
+@Slf4j
+final class CompanyResolver {
+
+    private final SessionFactory sessionFactory;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final LongAdder created = new LongAdder();
+
+    CompanyResolver(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    void preload() {
+        sessionFactory.inStatelessSession(session -> session
+                .createSelectionQuery("select c.name, c.id from Company c", Object[].class)
+                .getResultList()
+                .forEach(row -> ids.put((String) row[0], (Integer) row[1])));
+        log.debug("Preloaded {} companies", ids.size());
+    }
+
+    Integer resolve(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        // computeIfAbsent держит блокировку только на ключ: один insert на компанию, остальные ждут его id
+        return ids.computeIfAbsent(name, this::create);
+    }
+
+    long getCreated() {
+        return created.sum();
+    }
+
+    private Integer create(String name) {
+        return sessionFactory.fromStatelessTransaction(session -> {
+            Company company = Company.builder()
+                    .name(name)
+                    .build();
+            session.insert(company);
+            created.increment();
+            return company.getId();
+        });
+    }
+}
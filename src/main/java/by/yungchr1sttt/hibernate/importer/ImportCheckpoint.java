@@ -0,0 +1,83 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import by.yungchr1sttt.hibernate.entity.ImportSegment;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+
+/**
+ * Журнал закоммиченных сегментов в таблице import_segment: строка сегмента вставляется в его же
+ * транзакции, поэтому сегмент либо в базе вместе с отметкой, либо не в базе вовсе.
+ * Границы сегментов зависят от размера файла и сегмента - отметки с другими размерами не применяются
+ * и удаляются при открытии.
+ */
+final class ImportCheckpoint {
+
+    private final SessionFactory sessionFactory;
+    private final String source;
+    private final long fileSize;
+    private final long segmentSize;
+    private final BitSet done;
+
+    private ImportCheckpoint(SessionFactory sessionFactory, String source, long fileSize, long segmentSize,
+                             BitSet done) {
+        this.sessionFactory = sessionFactory;
+        this.source = source;
+        this.fileSize = fileSize;
+        this.segmentSize = segmentSize;
+        this.done = done;
+    }
+
+    static ImportCheckpoint open(SessionFactory sessionFactory, Path path, long fileSize, long segmentSize) {
+        String source = path.toAbsolutePath().normalize().toString();
+        BitSet done = new BitSet();
+        sessionFactory.inStatelessTransaction(session -> {
+            session.createMutationQuery("""
+                            delete from ImportSegment s
+                            where s.source = :source and (s.fileSize <> :fileSize or s.segmentSize <> :segmentSize)
+                            """)
+                    .setParameter("source", source)
+                    .setParameter("fileSize", fileSize)
+                    .setParameter("segmentSize", segmentSize)
+                    .executeUpdate();
+            session.createSelectionQuery("""
+                            select s.segmentIndex from ImportSegment s
+                            where s.source = :source and s.fileSize = :fileSize and s.segmentSize = :segmentSize
+                            """, Integer.class)
+                    .setParameter("source", source)
+                    .setParameter("fileSize", fileSize)
+                    .setParameter("segmentSize", segmentSize)
+                    .getResultList()
+                    .forEach(done::set);
+        });
+        return new ImportCheckpoint(sessionFactory, source, fileSize, segmentSize, done);
+    }
+
+    boolean isDone(int segment) {
+        return done.get(segment);
+    }
+
+    /**
+     * Отметка в транзакции сегмента - вызывается до её commit.
+     */
+    void markDone(StatelessSession session, int segment) {
+        session.insert(ImportSegment.builder()
+                .source(source)
+                .fileSize(fileSize)
+                .segmentSize(segmentSize)
+                .segmentIndex(segment)
+                .build());
+    }
+
+    /**
+     * Импорт завершён целиком - отметки больше не нужны.
+     */
+    void delete() {
+        sessionFactory.inStatelessTransaction(session -> session
+                .createMutationQuery("delete from ImportSegment s where s.source = :source")
+                .setParameter("source", source)
+                .executeUpdate());
+    }
+}
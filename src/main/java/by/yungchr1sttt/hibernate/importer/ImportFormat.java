@@ -0,0 +1,200 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Разбор одной строки файла [start, end) в границы полей. Кавычки CSV и экранирование JSON
+ * снимаются только у полей, где они реально встретились (см. {@link RecordFields#text}).
+ * Записи не должны содержать переводов строки внутри значений: файл делится на сегменты по '\n'.
+ */
+public enum ImportFormat {
+
+    NDJSON {
+        @Override
+        boolean hasHeader() {
+            return false;
+        }
+
+        @Override
+        void parse(ByteBuffer buffer, int pos, int end, Column[] layout, RecordFields fields) {
+            pos = skipSpaces(buffer, pos, end);
+            expect(buffer, pos++, end, '{');
+            pos = skipSpaces(buffer, pos, end);
+            if (at(buffer, pos, end) == '}') {
+                return;
+            }
+            while (true) {
+                expect(buffer, pos, end, '"');
+                int keyEnd = closingQuote(buffer, pos + 1, end);
+                Column column = Column.byKey(buffer, pos + 1, keyEnd);
+                pos = skipSpaces(buffer, keyEnd + 1, end);
+                expect(buffer, pos, end, ':');
+                pos = skipSpaces(buffer, pos + 1, end);
+                if (at(buffer, pos, end) == '"') {
+                    int valueEnd = closingQuote(buffer, pos + 1, end);
+                    fields.set(column, pos + 1, valueEnd, indexOf(buffer, '\\', pos + 1, valueEnd) >= 0);
+                    pos = valueEnd + 1;
+                } else {
+                    // число или null
+                    int valueEnd = pos;
+                    while (valueEnd < end && buffer.get(valueEnd) != ',' && buffer.get(valueEnd) != '}'
+                            && buffer.get(valueEnd) != ' ') {
+                        valueEnd++;
+                    }
+                    if (!isNull(buffer, pos, valueEnd)) {
+                        fields.set(column, pos, valueEnd, false);
+                    }
+                    pos = valueEnd;
+                }
+                pos = skipSpaces(buffer, pos, end);
+                byte next = at(buffer, pos, end);
+                if (next == '}') {
+                    return;
+                }
+                expect(buffer, pos, end, ',');
+                pos = skipSpaces(buffer, pos + 1, end);
+            }
+        }
+
+        @Override
+        String unescape(String value) {
+            StringBuilder result = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c != '\\' || i + 1 == value.length()) {
+                    result.append(c);
+                    continue;
+                }
+                char escape = value.charAt(++i);
+                switch (escape) {
+                    case 'n' -> result.append('\n');
+                    case 'r' -> result.append('\r');
+                    case 't' -> result.append('\t');
+                    case 'b' -> result.append('\b');
+                    case 'f' -> result.append('\f');
+                    case 'u' -> {
+                        result.append((char) Integer.parseInt(value, i + 1, i + 5, 16));
+                        i += 4;
+                    }
+                    default -> result.append(escape);
+                }
+            }
+            return result.toString();
+        }
+    },
+
+    CSV {
+        @Override
+        boolean hasHeader() {
+            return true;
+        }
+
+        @Override
+        void parse(ByteBuffer buffer, int pos, int end, Column[] layout, RecordFields fields) {
+            for (int field = 0; ; field++) {
+                Column column = field < layout.length ? layout[field] : null;
+                if (pos < end && buffer.get(pos) == '"') {
+                    int valueEnd = pos + 1;
+                    boolean escaped = false;
+                    while (true) {
+                        if (at(buffer, valueEnd, end) == '"') {
+                            if (valueEnd + 1 < end && buffer.get(valueEnd + 1) == '"') {
+                                escaped = true;
+                                valueEnd += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        valueEnd++;
+                    }
+                    fields.set(column, pos + 1, valueEnd, escaped);
+                    pos = valueEnd + 1;
+                    if (pos < end && buffer.get(pos) != ',') {
+                        throw new IllegalArgumentException("Expected ',' after quoted field at " + pos);
+                    }
+                } else {
+                    int valueEnd = indexOf(buffer, ',', pos, end);
+                    if (valueEnd < 0) {
+                        valueEnd = end;
+                    }
+                    // пустое поле - null, так его пишет выгрузка
+                    if (valueEnd > pos) {
+                        fields.set(column, pos, valueEnd, false);
+                    }
+                    pos = valueEnd;
+                }
+                if (pos >= end) {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        @Override
+        String unescape(String value) {
+            return value.replace("\"\"", "\"");
+        }
+    };
+
+    abstract boolean hasHeader();
+
+    /**
+     * layout - колонка для каждой позиции CSV (null - поле пропускается); NDJSON его не использует.
+     */
+    abstract void parse(ByteBuffer buffer, int pos, int end, Column[] layout, RecordFields fields);
+
+    abstract String unescape(String value);
+
+    static Column[] layout(String header) {
+        String[] names = header.split(",", -1);
+        Column[] layout = new Column[names.length];
+        for (int i = 0; i < names.length; i++) {
+            layout[i] = Column.byHeader(names[i].strip());
+        }
+        return layout;
+    }
+
+    static int indexOf(ByteBuffer buffer, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int closingQuote(ByteBuffer buffer, int pos, int end) {
+        while (true) {
+            byte c = at(buffer, pos, end);
+            if (c == '"') {
+                return pos;
+            }
+            pos += c == '\\' ? 2 : 1;
+        }
+    }
+
+    private static boolean isNull(ByteBuffer buffer, int start, int end) {
+        return end - start == 4 && buffer.get(start) == 'n' && buffer.get(start + 1) == 'u'
+                && buffer.get(start + 2) == 'l' && buffer.get(start + 3) == 'l';
+    }
+
+    private static int skipSpaces(ByteBuffer buffer, int pos, int end) {
+        while (pos < end && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static void expect(ByteBuffer buffer, int pos, int end, char c) {
+        if (at(buffer, pos, end) != c) {
+            throw new IllegalArgumentException("Expected '" + c + "' at " + pos);
+        }
+    }
+
+    private static byte at(ByteBuffer buffer, int pos, int end) {
+        if (pos >= end) {
+            throw new IllegalArgumentException("Unexpected end of record");
+        }
+        return buffer.get(pos);
+    }
+}
@@ -0,0 +1,19 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import java.time.Duration;
+
+/**
+ * rows и bytes - загруженное в этом запуске, skippedBytes - сегменты, импортированные до рестарта.
+ */
+public record ImportResult(long rows, long bytes, long skippedBytes, long companiesCreated, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+
+    public double megabytesPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : bytes / (1024.0 * 1024.0) * 1_000_000_000.0 / nanos;
+    }
+}
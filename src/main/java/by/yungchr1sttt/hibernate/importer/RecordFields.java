@@ -0,0 +1,152 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import by.yungchr1sttt.hibernate.entity.Role;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Границы полей текущей записи внутри отображённого в память сегмента. Парсер только запоминает
+ * смещения, строки создаются для тех значений, что попадут в сущность; дата и роль разбираются
+ * прямо из байтов. Экземпляр переиспользуется для всех записей сегмента.
+ */
+final class RecordFields {
+
+    private static final Role[] ROLES = Role.values();
+    private static final byte[][] ROLE_NAMES = Arrays.stream(ROLES)
+            .map(role -> role.name().getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    private final ByteBuffer buffer;
+    private final ImportFormat format;
+    private final int[] starts = new int[Column.values().length];
+    private final int[] ends = new int[starts.length];
+    private final boolean[] escaped = new boolean[starts.length];
+    private byte[] scratch = new byte[256];
+
+    RecordFields(ByteBuffer buffer, ImportFormat format) {
+        this.buffer = buffer;
+        this.format = format;
+    }
+
+    void clear() {
+        Arrays.fill(starts, -1);
+    }
+
+    void set(Column column, int start, int end, boolean escapes) {
+        if (column != null) {
+            starts[column.ordinal()] = start;
+            ends[column.ordinal()] = end;
+            escaped[column.ordinal()] = escapes;
+        }
+    }
+
+    boolean isPresent(Column column) {
+        return starts[column.ordinal()] >= 0;
+    }
+
+    String text(Column column) {
+        int i = column.ordinal();
+        if (starts[i] < 0) {
+            return null;
+        }
+        int length = copy(column);
+        String value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        return escaped[i] ? format.unescape(value) : value;
+    }
+
+    LocalDate date(Column column) {
+        int i = column.ordinal();
+        if (starts[i] < 0) {
+            return null;
+        }
+        int start = starts[i];
+        // yyyy-MM-dd, как пишет выгрузка
+        if (ends[i] - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            throw new IllegalArgumentException("Invalid " + column + ", expected yyyy-MM-dd: " + text(column));
+        }
+        try {
+            return LocalDate.of(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2));
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + text(column), ex);
+        }
+    }
+
+    Role role(Column column) {
+        int i = column.ordinal();
+        if (starts[i] < 0) {
+            return null;
+        }
+        for (int r = 0; r < ROLES.length && !escaped[i]; r++) {
+            if (equalsBytes(buffer, starts[i], ends[i], ROLE_NAMES[r], ROLE_NAMES[r].length)) {
+                return ROLES[r];
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + column + ": " + text(column));
+    }
+
+    /**
+     * Совпадает ли поле побайтно с первыми length байтами value - для кэша последней компании.
+     */
+    boolean matches(Column column, byte[] value, int length) {
+        int i = column.ordinal();
+        return starts[i] >= 0 && !escaped[i] && equalsBytes(buffer, starts[i], ends[i], value, length);
+    }
+
+    boolean isEscaped(Column column) {
+        return escaped[column.ordinal()];
+    }
+
+    /**
+     * Копирует сырые байты поля в target и возвращает их длину; target должен вмещать поле.
+     */
+    int copyTo(Column column, byte[] target) {
+        int i = column.ordinal();
+        int length = ends[i] - starts[i];
+        buffer.get(starts[i], target, 0, length);
+        return length;
+    }
+
+    int length(Column column) {
+        int i = column.ordinal();
+        return ends[i] - starts[i];
+    }
+
+    private int copy(Column column) {
+        int length = length(column);
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return copyTo(column, scratch);
+    }
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeException("Not a digit at " + i);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Сравнивает байты [start, end) буфера с первыми length байтами value.
+     */
+    static boolean equalsBytes(ByteBuffer buffer, int start, int end, byte[] value, int length) {
+        if (end - start != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,351 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import by.yungchr1sttt.hibernate.entity.Birthday;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.PersonalInfo;
+import by.yungchr1sttt.hibernate.entity.User;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Загрузка пользователей из CSV/NDJSON (формат выгрузки {@link by.yungchr1sttt.hibernate.export.UserExporter}).
+ * Файл делится на сегменты по границам строк; сегмент отображается в память (FileChannel.map)
+ * и разбирается по смещениям без промежуточных строк на каждое поле. Каждый сегмент - одна транзакция
+ * StatelessSession с JDBC-батчами, сегменты обрабатываются параллельно threads потоками.
+ * Номер сегмента пишется в таблицу import_segment той же транзакцией, что и его строки, - повторный
+ * запуск после сбоя пропускает ровно закоммиченные сегменты.
+ */
+@Slf4j
+@Builder
+public class UserImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    // запись должна целиком влезать в один MappedByteBuffer
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+    private static final int PROBE_SIZE = 64 * 1024;
+
+    private final SessionFactory sessionFactory;
+    @Builder.Default
+    private final int threads = Runtime.getRuntime().availableProcessors();
+    @Builder.Default
+    private final int batchSize = DEFAULT_BATCH_SIZE;
+    @Builder.Default
+    private final long segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    public ImportResult importFile(Path source, ImportFormat format) throws IOException {
+        if (threads < 1 || batchSize < 1 || segmentSize < 1 || segmentSize > MAX_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("threads and batchSize must be positive, segmentSize in [1, "
+                    + MAX_SEGMENT_SIZE + "]");
+        }
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(source, READ)) {
+            long size = channel.size();
+            Column[] layout = format.hasHeader() ? header(channel, size) : new Column[0];
+            List<Segment> segments = split(channel, size);
+            CompanyResolver companies = new CompanyResolver(sessionFactory);
+            companies.preload();
+
+            Progress progress = new Progress(segments.size(), size, start);
+            ImportCheckpoint checkpoint = ImportCheckpoint.open(sessionFactory, source, size, segmentSize);
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                CompletionService<Segment> completion = new ExecutorCompletionService<>(executor);
+                int submitted = 0;
+                for (Segment segment : segments) {
+                    if (checkpoint.isDone(segment.index())) {
+                        progress.skipped(segment);
+                        continue;
+                    }
+                    SegmentImport task = new SegmentImport(channel, segment, format, layout, companies,
+                            checkpoint, progress);
+                    completion.submit(task::run, segment);
+                    submitted++;
+                }
+                try {
+                    for (int i = 0; i < submitted; i++) {
+                        completion.take().get();
+                    }
+                } catch (ExecutionException ex) {
+                    // остальные сегменты не начинаем, закоммиченные уже в checkpoint
+                    executor.shutdownNow();
+                    throw failure(ex.getCause());
+                } catch (InterruptedException ex) {
+                    executor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Import of " + source + " interrupted");
+                }
+            }
+            checkpoint.delete();
+
+            ImportResult result = new ImportResult(progress.rows.get(), progress.bytes.get(), progress.skippedBytes.get(),
+                    companies.getCreated(), Duration.ofNanos(System.nanoTime() - start));
+            log.info("Imported {} users ({} bytes, {} companies created, {} bytes skipped by checkpoint) from {} in {} ms: "
+                            + "{} rows/sec, {} MB/sec", result.rows(), result.bytes(), result.companiesCreated(),
+                    result.skippedBytes(), source, result.elapsed().toMillis(), Math.round(result.rowsPerSecond()),
+                    "%.1f".formatted(result.megabytesPerSecond()));
+            return result;
+        }
+    }
+
+    private static IOException failure(Throwable cause) {
+        if (cause instanceof UncheckedIOException io) {
+            return io.getCause();
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return new IOException(cause);
+    }
+
+    private static Column[] header(FileChannel channel, long size) throws IOException {
+        long end = nextLineStart(channel, 0, size);
+        ByteBuffer line = ByteBuffer.allocate(Math.toIntExact(end));
+        channel.read(line, 0);
+        Column[] layout = ImportFormat.layout(new String(line.array(), StandardCharsets.UTF_8).strip());
+        if (!Arrays.asList(layout).contains(Column.USERNAME)) {
+            throw new IllegalArgumentException("CSV header has no username column");
+        }
+        return layout;
+    }
+
+    /**
+     * Границы сегментов зависят только от содержимого файла и segmentSize - checkpoint на это опирается.
+     */
+    private List<Segment> split(FileChannel channel, long size) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = start + segmentSize >= size ? size : nextLineStart(channel, start + segmentSize, size);
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Record longer than 2 GB near byte " + start);
+            }
+            segments.add(new Segment(segments.size(), start, end));
+            start = end;
+        }
+        return segments;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private record Segment(int index, long start, long end) {
+
+        int length() {
+            return (int) (end - start);
+        }
+    }
+
+    /**
+     * Счётчики для лога прогресса и итогового результата.
+     */
+    private static final class Progress {
+
+        private final int segments;
+        private final long size;
+        private final long startNanos;
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong skippedBytes = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+
+        private Progress(int segments, long size, long startNanos) {
+            this.segments = segments;
+            this.size = size;
+            this.startNanos = startNanos;
+        }
+
+        void skipped(Segment segment) {
+            skippedBytes.addAndGet(segment.length());
+            completed.incrementAndGet();
+        }
+
+        void imported(Segment segment, long segmentRows) {
+            long totalRows = rows.addAndGet(segmentRows);
+            long totalBytes = bytes.addAndGet(segment.length());
+            long done = completed.incrementAndGet();
+            long nanos = Math.max(1, System.nanoTime() - startNanos);
+            log.info("Import progress: segment {}/{}, {}%, {} rows, {} rows/sec", done, segments,
+                    (totalBytes + skippedBytes.get()) * 100 / Math.max(1, size), totalRows,
+                    Math.round(totalRows * 1_000_000_000.0 / nanos));
+        }
+    }
+
+    /**
+     * Импорт одного сегмента. Кэширует последнюю компанию побайтно: в выгрузке пользователи
+     * одной компании обычно идут подряд, и строка с её именем не создаётся на каждую запись.
+     */
+    private final class SegmentImport {
+
+        private final FileChannel channel;
+        private final Segment segment;
+        private final ImportFormat format;
+        private final Column[] layout;
+        private final CompanyResolver companies;
+        private final ImportCheckpoint checkpoint;
+        private final Progress progress;
+
+        // company_id -> сколько пользователей добавлено сегментом
+        private final Map<Integer, int[]> members = new HashMap<>();
+        private byte[] lastCompanyName = new byte[64];
+        private int lastCompanyLength = -1;
+        private Company lastCompany;
+        private int[] lastMembers;
+
+        private SegmentImport(FileChannel channel, Segment segment, ImportFormat format, Column[] layout,
+                              CompanyResolver companies, ImportCheckpoint checkpoint, Progress progress) {
+            this.channel = channel;
+            this.segment = segment;
+            this.format = format;
+            this.layout = layout;
+            this.companies = companies;
+            this.checkpoint = checkpoint;
+            this.progress = progress;
+        }
+
+        void run() {
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, segment.start(), segment.length());
+                progress.imported(segment, importBuffer(buffer));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Import of segment " + segment.index() + " failed", ex);
+            }
+        }
+
+        /**
+         * Число вставленных строк.
+         */
+        private long importBuffer(ByteBuffer buffer) {
+            RecordFields fields = new RecordFields(buffer, format);
+            long rows = 0;
+
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                session.setJdbcBatchSize(batchSize);
+                Transaction transaction = session.beginTransaction();
+                try {
+                    int limit = buffer.limit();
+                    int pos = segment.start() == 0 && format.hasHeader() ? lineEnd(buffer, 0, limit) + 1 : 0;
+                    while (pos < limit) {
+                        int eol = lineEnd(buffer, pos, limit);
+                        int end = eol > pos && buffer.get(eol - 1) == '\r' ? eol - 1 : eol;
+                        if (end > pos) {
+                            session.insert(parse(buffer, pos, end, fields));
+                            rows++;
+                        }
+                        pos = eol + 1;
+                    }
+                    members.forEach((companyId, count) -> session
+                            .createMutationQuery("update Company c set c.memberCount = c.memberCount + :delta where c.id = :id")
+                            .setParameter("delta", count[0])
+                            .setParameter("id", companyId)
+                            .executeUpdate());
+                    checkpoint.markDone(session, segment.index());
+                    transaction.commit();
+                } catch (RuntimeException ex) {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                    throw ex;
+                }
+            }
+            return rows;
+        }
+
+        private User parse(ByteBuffer buffer, int pos, int end, RecordFields fields) {
+            fields.clear();
+            try {
+                format.parse(buffer, pos, end, layout, fields);
+                if (!fields.isPresent(Column.USERNAME)) {
+                    throw new IllegalArgumentException("Missing " + Column.USERNAME);
+                }
+                LocalDate birthDate = fields.date(Column.BIRTH_DATE);
+                return User.builder()
+                        .username(fields.text(Column.USERNAME))
+                        .personalInfo(PersonalInfo.builder()
+                                .firstName(fields.text(Column.FIRST_NAME))
+                                .lastName(fields.text(Column.LAST_NAME))
+                                .birthDate(birthDate == null ? null : new Birthday(birthDate))
+                                .build())
+                        .role(fields.role(Column.ROLE))
+                        .company(company(fields))
+                        .build();
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Invalid " + format + " record at byte " + (segment.start() + pos)
+                        + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        private Company company(RecordFields fields) {
+            if (!fields.isPresent(Column.COMPANY)) {
+                return null;
+            }
+            if (!fields.matches(Column.COMPANY, lastCompanyName, lastCompanyLength)) {
+                Integer id = companies.resolve(fields.text(Column.COMPANY));
+                // для внешнего ключа нужен только id; version не null, иначе Hibernate примет ссылку за новую сущность
+                lastCompany = Company.builder()
+                        .id(id)
+                        .version(0L)
+                        .build();
+                lastMembers = members.computeIfAbsent(id, key -> new int[1]);
+                if (fields.isEscaped(Column.COMPANY)) {
+                    lastCompanyLength = -1;
+                } else {
+                    if (lastCompanyName.length < fields.length(Column.COMPANY)) {
+                        lastCompanyName = new byte[fields.length(Column.COMPANY)];
+                    }
+                    lastCompanyLength = fields.copyTo(Column.COMPANY, lastCompanyName);
+                }
+            }
+            lastMembers[0]++;
+            return lastCompany;
+        }
+
+        private int lineEnd(ByteBuffer buffer, int from, int limit) {
+            int eol = ImportFormat.indexOf(buffer, '\n', from, limit);
+            return eol < 0 ? limit : eol;
+        }
+    }
+}
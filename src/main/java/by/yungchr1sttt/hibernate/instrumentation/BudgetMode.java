@@ -0,0 +1,20 @@
+package by.yungchr1sttt.hibernate.instrumentation;
+
+public enum BudgetMode {
+
+    /**
+     * Превышение бюджета - исключение. Для тестов.
+     */
+    FAIL,
+
+    /**
+     * Превышение бюджета - предупреждение в лог, один раз на сессию. Для продакшена.
+     */
+    WARN;
+
+    public static final String PROPERTY = "hibernate.statement_budget.mode";
+
+    public static BudgetMode fromSystemProperty() {
+        return valueOf(System.getProperty(PROPERTY, WARN.name()).toUpperCase());
+    }
+}
@@ -0,0 +1,10 @@
+package by.yungchr1sttt.hibernate.instrumentation;
+
+import org.hibernate.HibernateException;
+
+public class StatementBudgetExceededException extends HibernateException {
+
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
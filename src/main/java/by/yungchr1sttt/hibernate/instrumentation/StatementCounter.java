@@ -0,0 +1,125 @@
+package by.yungchr1sttt.hibernate.instrumentation;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Считает SQL одной сессии: всего, по транзакциям и по форме запроса.
+ * Форма, повторившаяся {@code nPlusOneThreshold} раз, помечается как вероятный N+1
+ * (например select из books на каждого Author). Бюджет ограничивает число запросов сессии.
+ * <p>
+ * Экземпляр привязан к одной сессии, см. {@link #openSession(SessionFactory)}.
+ */
+@Slf4j
+public class StatementCounter implements StatementInspector, SessionEventListener {
+
+    public static final int DEFAULT_N_PLUS_ONE_THRESHOLD = 3;
+
+    private final String name;
+    private final int budget;
+    private final BudgetMode mode;
+    private final int nPlusOneThreshold;
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int statements;
+    private int transactionStatements;
+    private int maxTransactionStatements;
+    private int transactions;
+    private boolean budgetWarned;
+
+    /**
+     * @param budget максимум запросов на сессию, 0 - без ограничения
+     * @param mode   что делать при превышении, по умолчанию из {@value BudgetMode#PROPERTY}
+     */
+    @Builder
+    private StatementCounter(String name, int budget, BudgetMode mode, Integer nPlusOneThreshold) {
+        this.name = name != null ? name : "session";
+        this.budget = budget;
+        this.mode = mode != null ? mode : BudgetMode.fromSystemProperty();
+        this.nPlusOneThreshold = nPlusOneThreshold != null ? nPlusOneThreshold : DEFAULT_N_PLUS_ONE_THRESHOLD;
+    }
+
+    /**
+     * Inspector фабрики (например PrimaryWriteInspector) сессия иначе бы потеряла - он вызывается первым.
+     */
+    public Session openSession(SessionFactory sessionFactory) {
+        StatementInspector factoryInspector = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions()
+                .getStatementInspector();
+        StatementInspector inspector = factoryInspector == null ? this : sql -> inspect(factoryInspector.inspect(sql));
+        return sessionFactory.withOptions()
+                .statementInspector(inspector)
+                .eventListeners(this)
+                .openSession();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements++;
+        transactionStatements++;
+
+        String shape = StatementShape.of(sql);
+        int repeats = shapes.merge(shape, 1, Integer::sum);
+        if (repeats == nPlusOneThreshold) {
+            log.warn("[{}] Possible N+1: the same statement ran {} times: {}", name, repeats, shape);
+        }
+
+        if (budget > 0 && statements > budget) {
+            String message = "[%s] Statement budget of %d exceeded by: %s".formatted(name, budget, shape);
+            if (mode == BudgetMode.FAIL) {
+                throw new StatementBudgetExceededException(message);
+            }
+            if (!budgetWarned) {
+                budgetWarned = true;
+                log.warn(message);
+            }
+        }
+        return sql;
+    }
+
+    @Override
+    public void transactionCompletion(boolean successful) {
+        transactions++;
+        maxTransactionStatements = Math.max(maxTransactionStatements, transactionStatements);
+        transactionStatements = 0;
+    }
+
+    @Override
+    public void end() {
+        StatementReport report = report();
+        if (!report.suspectedNPlusOne().isEmpty()) {
+            log.warn("[{}] Session closed after {} statements, suspected N+1: {}",
+                    name, report.statements(), report.suspectedNPlusOne());
+        } else {
+            log.debug("[{}] Session closed after {} statements in {} transactions",
+                    name, report.statements(), report.transactions());
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getTransactionStatements() {
+        return transactionStatements;
+    }
+
+    public StatementReport report() {
+        Map<String, Integer> suspected = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() >= nPlusOneThreshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> suspected.put(entry.getKey(), entry.getValue()));
+        return new StatementReport(statements, transactions,
+                Math.max(maxTransactionStatements, transactionStatements), suspected);
+    }
+}
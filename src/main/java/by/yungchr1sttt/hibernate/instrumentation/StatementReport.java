@@ -0,0 +1,15 @@
+package by.yungchr1sttt.hibernate.instrumentation;
+
+import java.util.Map;
+
+/**
+ * @param statements            все запросы сессии
+ * @param transactions          завершённые транзакции
+ * @param maxTransactionStatements больше всего запросов в одной транзакции
+ * @param suspectedNPlusOne     формы запросов, повторившиеся не меньше порога N+1, и число повторов
+ */
+public record StatementReport(int statements,
+                              int transactions,
+                              int maxTransactionStatements,
+                              Map<String, Integer> suspectedNPlusOne) {
+}
@@ -0,0 +1,219 @@
+package by.yungchr1sttt.hibernate.load;
+
+import by.yungchr1sttt.hibernate.dao.ChatDao;
+import by.yungchr1sttt.hibernate.entity.Author;
+import by.yungchr1sttt.hibernate.entity.Birthday;
+import by.yungchr1sttt.hibernate.entity.Book;
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.PersonalInfo;
+import by.yungchr1sttt.hibernate.entity.Profile;
+import by.yungchr1sttt.hibernate.entity.Role;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.metrics.LatencyHistogram;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузка на общую фабрику: каждая единица работы - отдельный виртуальный поток со своей сессией,
+ * одновременно выполняется не больше concurrency единиц. Операции выбираются случайно по весам mix.
+ * Данные создаются с префиксом прогона, поэтому повторный запуск на той же базе не конфликтует.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    public static final int DEFAULT_CONCURRENCY = 1_000;
+    public static final int DEFAULT_UNITS = 10_000;
+    public static final Map<LoadOperation, Integer> DEFAULT_MIX = Map.of(
+            LoadOperation.CREATE_COMPANY, 2,
+            LoadOperation.JOIN_CHAT, 5,
+            LoadOperation.READ_AUTHORS, 3);
+    // как у JFR по умолчанию: короткие захваты монитора не мешают, длинные - блокируют носителей
+    public static final Duration DEFAULT_PINNING_THRESHOLD = Duration.ofMillis(20);
+
+    private static final int SEED_CHATS = 20;
+    private static final int SEED_USERS = 200;
+    private static final int SEED_AUTHORS = 50;
+    private static final int BOOKS_PER_AUTHOR = 5;
+    private static final int AUTHORS_PER_READ = 10;
+    private static final int LOGGED_FAILURES = 10;
+
+    private final SessionFactory sessionFactory;
+    private final int concurrency;
+    private final int units;
+    private final Map<LoadOperation, Integer> mix;
+    private final int totalWeight;
+    private final Duration pinningThreshold;
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Long> chatIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> authorIds = new ArrayList<>();
+
+    @Builder
+    private LoadGenerator(SessionFactory sessionFactory, Integer concurrency, Integer units,
+                          Map<LoadOperation, Integer> mix, Duration pinningThreshold) {
+        this.sessionFactory = sessionFactory;
+        this.concurrency = concurrency != null ? concurrency : DEFAULT_CONCURRENCY;
+        this.units = units != null ? units : DEFAULT_UNITS;
+        this.mix = new EnumMap<>(mix != null ? mix : DEFAULT_MIX);
+        this.totalWeight = this.mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.pinningThreshold = pinningThreshold != null ? pinningThreshold : DEFAULT_PINNING_THRESHOLD;
+        if (this.concurrency <= 0 || this.units <= 0 || totalWeight <= 0) {
+            throw new IllegalArgumentException("concurrency, units and mix weights must be positive");
+        }
+    }
+
+    public LoadReport run() {
+        seed();
+        Map<LoadOperation, LatencyHistogram> latencies = new EnumMap<>(LoadOperation.class);
+        mix.keySet().forEach(operation -> latencies.put(operation, new LatencyHistogram()));
+        LatencyHistogram overall = new LatencyHistogram();
+        LongAdder failed = new LongAdder();
+        Semaphore slots = new Semaphore(concurrency);
+
+        log.info("Load run {}: {} units, concurrency {}, mix {}", runId, units, concurrency, mix);
+        PinningMonitor pinning = new PinningMonitor(pinningThreshold);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < units; i++) {
+                LoadOperation operation = pick();
+                executor.submit(() -> {
+                    slots.acquireUninterruptibly();
+                    long begin = System.nanoTime();
+                    try {
+                        execute(operation);
+                        long nanos = System.nanoTime() - begin;
+                        latencies.get(operation).record(nanos);
+                        overall.record(nanos);
+                    } catch (RuntimeException ex) {
+                        failed.increment();
+                        if (failed.sum() <= LOGGED_FAILURES) {
+                            log.warn("{} failed", operation, ex);
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            pinning.close();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<LoadOperation, LatencyHistogram.Snapshot> snapshots = new EnumMap<>(LoadOperation.class);
+        latencies.forEach((operation, histogram) -> snapshots.put(operation, histogram.snapshot()));
+        LoadReport report = new LoadReport(elapsed, overall.getCount(), failed.sum(), overall.snapshot(),
+                snapshots, pinning.report());
+        if (report.pinning().pinnedInJdbc()) {
+            log.warn("Virtual threads were pinned in JDBC code {} times: {}", report.pinning().inJdbc(),
+                    report.pinning().frames());
+        }
+        return report;
+    }
+
+    private LoadOperation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<LoadOperation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed during pick");
+    }
+
+    private void execute(LoadOperation operation) {
+        switch (operation) {
+            case CREATE_COMPANY -> createCompany();
+            case JOIN_CHAT -> sessionFactory.inTransaction(session ->
+                    ChatDao.getInstance().addMember(session, random(chatIds), random(userIds)));
+            case READ_AUTHORS -> readAuthors();
+        }
+    }
+
+    private void createCompany() {
+        long n = sequence.incrementAndGet();
+        Company company = Company.builder()
+                .name("load-" + runId + "-company-" + n)
+                .build();
+        User user = User.builder()
+                .username("load-" + runId + "-user-" + n + "@mail.ru")
+                .role(Role.USER)
+                .personalInfo(PersonalInfo.builder()
+                        .firstName("Load")
+                        .lastName("User" + n)
+                        .birthDate(new Birthday(LocalDate.of(1990, 1, 1).plusDays(n % 10_000)))
+                        .build())
+                .build();
+        company.addUser(user);
+        Profile profile = Profile.builder()
+                .street("Load street " + n)
+                .language("ru")
+                .build();
+        profile.setUser(user);
+        sessionFactory.inTransaction(session -> session.persist(company));
+    }
+
+    private void readAuthors() {
+        int from = ThreadLocalRandom.current().nextInt(Math.max(1, authorIds.size() - AUTHORS_PER_READ));
+        List<Long> ids = authorIds.subList(from, Math.min(authorIds.size(), from + AUTHORS_PER_READ));
+        HibernateUtil.fromReadOnlyTransaction(sessionFactory, session -> session.createSelectionQuery(
+                        "select a from Author a left join fetch a.books where a.id in :ids", Author.class)
+                .setParameter("ids", ids)
+                .list());
+    }
+
+    private void seed() {
+        sessionFactory.inStatelessTransaction(session -> {
+            for (int c = 0; c < SEED_CHATS; c++) {
+                Chat chat = Chat.builder()
+                        .name("load-" + runId + "-chat-" + c)
+                        .build();
+                session.insert(chat);
+                chatIds.add(chat.getId());
+            }
+            for (int u = 0; u < SEED_USERS; u++) {
+                User user = User.builder()
+                        .username("load-" + runId + "-member-" + u + "@mail.ru")
+                        .role(Role.USER)
+                        .build();
+                session.insert(user);
+                userIds.add(user.getId());
+            }
+            for (int a = 0; a < SEED_AUTHORS; a++) {
+                Author author = Author.builder()
+                        .name("load-" + runId + "-author-" + a)
+                        .build();
+                session.insert(author);
+                authorIds.add(author.getId());
+                for (int b = 0; b < BOOKS_PER_AUTHOR; b++) {
+                    session.insert(Book.builder()
+                            .title("load-" + runId + "-book-" + a + "-" + b)
+                            .author(author)
+                            .build());
+                }
+            }
+        });
+    }
+
+    private static Long random(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,19 @@
+package by.yungchr1sttt.hibernate.load;
+
+public enum LoadOperation {
+
+    /**
+     * Company + User + Profile одной транзакцией, каскадом от Company.
+     */
+    CREATE_COMPANY,
+
+    /**
+     * Вступление случайного пользователя в случайный чат через UserChat и счётчик участников.
+     */
+    JOIN_CHAT,
+
+    /**
+     * Страница авторов с книгами в read-only транзакции.
+     */
+    READ_AUTHORS
+}
@@ -0,0 +1,39 @@
+package by.yungchr1sttt.hibernate.load;
+
+import by.yungchr1sttt.hibernate.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @param latencies задержки по операциям: от получения слота конкурентности до коммита,
+ *                  включая ожидание соединения в пуле
+ */
+public record LoadReport(Duration elapsed,
+                         long completed,
+                         long failed,
+                         LatencyHistogram.Snapshot overall,
+                         Map<LoadOperation, LatencyHistogram.Snapshot> latencies,
+                         PinningReport pinning) {
+
+    public double throughput() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : completed * 1_000_000_000.0 / nanos;
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder()
+                .append("%d units in %d ms, %.1f ops/s, %d failed%n".formatted(
+                        completed, elapsed.toMillis(), throughput(), failed))
+                .append("  all            ").append(overall).append(System.lineSeparator());
+        latencies.forEach((operation, snapshot) -> report
+                .append("  %-14s ".formatted(operation.name().toLowerCase()))
+                .append(snapshot)
+                .append(System.lineSeparator()));
+        report.append("  pinned virtual threads: %d, in JDBC: %d".formatted(pinning.events(), pinning.inJdbc()));
+        pinning.frames().forEach((frame, count) -> report
+                .append(System.lineSeparator())
+                .append("    %6d  %s".formatted(count, frame)));
+        return report.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package by.yungchr1sttt.hibernate.load;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ловит через JFR моменты, когда виртуальный поток блокируется, не отпуская поток-носитель
+ * (synchronized вокруг I/O в драйвере или пуле) - под нагрузкой это съедает всех носителей.
+ */
+@Slf4j
+public class PinningMonitor implements AutoCloseable {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final List<String> JDBC_PACKAGES = List.of(
+            "java.sql.", "javax.sql.", "org.h2.", "org.postgresql.", "com.zaxxer.hikari.");
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Map<String, LongAdder> frames = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder inJdbc = new LongAdder();
+
+    public PinningMonitor(Duration threshold) {
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+    }
+
+    public PinningReport report() {
+        Map<String, Long> counts = new TreeMap<>();
+        frames.forEach((frame, count) -> counts.put(frame, count.sum()));
+        return new PinningReport(events.sum(), inJdbc.sum(), counts);
+    }
+
+    /**
+     * Дожидается доставки уже записанных событий и останавливает запись.
+     */
+    @Override
+    public void close() {
+        stream.stop();
+        stream.close();
+    }
+
+    private void record(RecordedEvent event) {
+        events.increment();
+        List<RecordedFrame> stack = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+        String location = stack.isEmpty() ? "unknown" : describe(stack.get(0));
+        for (RecordedFrame frame : stack) {
+            if (isJdbc(frame)) {
+                inJdbc.increment();
+                location = describe(frame);
+                break;
+            }
+        }
+        frames.computeIfAbsent(location, key -> new LongAdder()).increment();
+        log.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), location);
+    }
+
+    private static boolean isJdbc(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return JDBC_PACKAGES.stream().anyMatch(type::startsWith);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
@@ -0,0 +1,15 @@
+package by.yungchr1sttt.hibernate.load;
+
+import java.util.Map;
+
+/**
+ * @param events  события jdk.VirtualThreadPinned длиннее порога
+ * @param inJdbc  из них с драйвером, пулом или java.sql в стеке
+ * @param frames  место пиннинга (первый JDBC-кадр, иначе верхний кадр стека) и число событий
+ */
+public record PinningReport(long events, long inJdbc, Map<String, Long> frames) {
+
+    public boolean pinnedInJdbc() {
+        return inJdbc > 0;
+    }
+}
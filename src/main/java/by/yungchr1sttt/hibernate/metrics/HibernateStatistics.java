@@ -0,0 +1,144 @@
+package by.yungchr1sttt.hibernate.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@RequiredArgsConstructor
+public class HibernateStatistics implements HibernateStatisticsMXBean {
+
+    private final Statistics statistics;
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        statistics.setStatisticsEnabled(enabled);
+    }
+
+    @Override
+    public long getStartTime() {
+        return statistics.getStart().toEpochMilli();
+    }
+
+    @Override
+    public long getSessionOpenCount() {
+        return statistics.getSessionOpenCount();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return statistics.getTransactionCount();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return statistics.getFlushCount();
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        return statistics.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTime() {
+        return statistics.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        return statistics.getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getSecondLevelCacheHitCount() {
+        return statistics.getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheMissCount() {
+        return statistics.getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public Map<String, Long> getEntityStatistics() {
+        Map<String, Long> values = new TreeMap<>();
+        for (String entity : statistics.getEntityNames()) {
+            EntityStatistics entityStatistics = statistics.getEntityStatistics(entity);
+            values.put(entity + "#loads", entityStatistics.getLoadCount());
+            values.put(entity + "#fetches", entityStatistics.getFetchCount());
+            values.put(entity + "#inserts", entityStatistics.getInsertCount());
+            values.put(entity + "#updates", entityStatistics.getUpdateCount());
+            values.put(entity + "#deletes", entityStatistics.getDeleteCount());
+            values.put(entity + "#optimisticFailures", entityStatistics.getOptimisticFailureCount());
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getCollectionStatistics() {
+        Map<String, Long> values = new TreeMap<>();
+        for (String role : statistics.getCollectionRoleNames()) {
+            CollectionStatistics collectionStatistics = statistics.getCollectionStatistics(role);
+            values.put(role + "#loads", collectionStatistics.getLoadCount());
+            values.put(role + "#fetches", collectionStatistics.getFetchCount());
+            values.put(role + "#updates", collectionStatistics.getUpdateCount());
+            values.put(role + "#recreates", collectionStatistics.getRecreateCount());
+            values.put(role + "#removes", collectionStatistics.getRemoveCount());
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getQueryStatistics() {
+        Map<String, Long> values = new TreeMap<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            values.put(query + "#executions", queryStatistics.getExecutionCount());
+            values.put(query + "#rows", queryStatistics.getExecutionRowCount());
+            values.put(query + "#avgTime", queryStatistics.getExecutionAvgTime());
+            values.put(query + "#maxTime", queryStatistics.getExecutionMaxTime());
+            values.put(query + "#cacheHits", queryStatistics.getCacheHitCount());
+            values.put(query + "#cacheMisses", queryStatistics.getCacheMissCount());
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getCacheRegionStatistics() {
+        Map<String, Long> values = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            values.put(region + "#hits", regionStatistics.getHitCount());
+            values.put(region + "#misses", regionStatistics.getMissCount());
+            values.put(region + "#puts", regionStatistics.getPutCount());
+            values.put(region + "#elements", regionStatistics.getElementCountInMemory());
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getSlowQueries() {
+        return new TreeMap<>(statistics.getSlowQueries());
+    }
+
+    @Override
+    public void clear() {
+        statistics.clear();
+    }
+}
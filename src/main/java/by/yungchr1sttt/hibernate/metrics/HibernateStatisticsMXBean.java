@@ -0,0 +1,61 @@
+package by.yungchr1sttt.hibernate.metrics;
+
+import java.util.Map;
+
+/**
+ * Статистика Hibernate в JMX (JConsole, VisualVM, jmx-экспортеры).
+ * Разрезы по сущностям, коллекциям, запросам и регионам кэша - таблицы с ключами "имя#метрика".
+ */
+public interface HibernateStatisticsMXBean {
+
+    boolean isStatisticsEnabled();
+
+    void setStatisticsEnabled(boolean enabled);
+
+    long getStartTime();
+
+    long getSessionOpenCount();
+
+    long getTransactionCount();
+
+    long getPrepareStatementCount();
+
+    long getFlushCount();
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTime();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    long getSecondLevelCacheHitCount();
+
+    long getSecondLevelCacheMissCount();
+
+    /**
+     * loads, fetches, inserts, updates, deletes, optimisticFailures
+     */
+    Map<String, Long> getEntityStatistics();
+
+    /**
+     * loads, fetches, updates, recreates, removes
+     */
+    Map<String, Long> getCollectionStatistics();
+
+    /**
+     * executions, rows, avgTime, maxTime, cacheHits, cacheMisses; время в мс
+     */
+    Map<String, Long> getQueryStatistics();
+
+    /**
+     * hits, misses, puts, elements
+     */
+    Map<String, Long> getCacheRegionStatistics();
+
+    /**
+     * SQL дольше hibernate.log_slow_query и максимальное время в мс - все, без семплирования лога.
+     */
+    Map<String, Long> getSlowQueries();
+
+    void clear();
+}
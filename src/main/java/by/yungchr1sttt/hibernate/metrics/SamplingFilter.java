@@ -0,0 +1,32 @@
+package by.yungchr1sttt.hibernate.metrics;
+
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пропускает в appender каждое Every-е событие: при пачке медленных запросов лог не становится
+ * новым узким местом. Полный счёт медленных запросов - в {@link HibernateStatisticsMXBean#getSlowQueries()}.
+ */
+public class SamplingFilter extends Filter {
+
+    private final AtomicLong events = new AtomicLong();
+    private int every = 1;
+
+    public void setEvery(int every) {
+        if (every < 1) {
+            throw new IllegalArgumentException("every must be positive: " + every);
+        }
+        this.every = every;
+    }
+
+    public int getEvery() {
+        return every;
+    }
+
+    @Override
+    public int decide(LoggingEvent event) {
+        return events.getAndIncrement() % every == 0 ? NEUTRAL : DENY;
+    }
+}
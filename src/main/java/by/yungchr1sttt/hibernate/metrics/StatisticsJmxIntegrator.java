@@ -0,0 +1,70 @@
+package by.yungchr1sttt.hibernate.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Регистрирует {@link HibernateStatisticsMXBean} каждой SessionFactory в platform MBeanServer
+ * как by.yungchr1sttt.hibernate:type=Statistics,name=&lt;имя фабрики или её uuid&gt;.
+ * Отключается hibernate.statistics.jmx_enabled=false.
+ */
+@Slf4j
+public class StatisticsJmxIntegrator implements Integrator {
+
+    public static final String ENABLED = "hibernate.statistics.jmx_enabled";
+    public static final String DOMAIN = "by.yungchr1sttt.hibernate";
+
+    public static ObjectName objectName(SessionFactory sessionFactory) {
+        SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+        String name = factory.getName() != null ? factory.getName() : factory.getUuid();
+        try {
+            return new ObjectName(DOMAIN + ":type=Statistics,name=" + ObjectName.quote(name));
+        } catch (MalformedObjectNameException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        if (!ConfigurationHelper.getBoolean(ENABLED, sessionFactory.getProperties(), true)) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        sessionFactory.addObserver(new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryCreated(SessionFactory factory) {
+                ObjectName name = objectName(factory);
+                try {
+                    server.registerMBean(new HibernateStatistics(factory.getStatistics()), name);
+                } catch (JMException ex) {
+                    log.warn("Failed to register {}", name, ex);
+                }
+            }
+
+            @Override
+            public void sessionFactoryClosing(SessionFactory factory) {
+                ObjectName name = objectName(factory);
+                try {
+                    if (server.isRegistered(name)) {
+                        server.unregisterMBean(name);
+                    }
+                } catch (JMException ex) {
+                    log.warn("Failed to unregister {}", name, ex);
+                }
+            }
+        });
+    }
+}
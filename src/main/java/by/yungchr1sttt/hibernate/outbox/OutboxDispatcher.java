@@ -0,0 +1,260 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+import by.yungchr1sttt.hibernate.entity.OutboxEvent;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Доставляет события outbox получателю. Каждый поток (и каждый экземпляр приложения) в своей
+ * транзакции захватывает до batchSize событий через {@code for update skip locked}: занятые другими
+ * строки пропускаются, а не ждут. Порядок внутри чата: событие доставляется, только если все более
+ * ранние pending-события чата захвачены этой же выборкой, - иначе чат ждёт следующего прохода.
+ * После ошибки первое событие чата откладывается с экспоненциальной паузой и дальше доставляется
+ * по одному, чтобы не повторять хвост; после maxAttempts оно уходит в DEAD и перестаёт держать чат.
+ * Доставка - at-least-once: получатель вызывается до коммита, удаляющего доставленные события.
+ */
+@Slf4j
+@Builder
+public class OutboxDispatcher implements AutoCloseable {
+
+    public static final int DEFAULT_THREADS = 2;
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(200);
+    public static final int DEFAULT_MAX_ATTEMPTS = 10;
+    public static final Duration DEFAULT_BASE_BACKOFF = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(5);
+
+    // события за отложенным повтором первым событием чата не захватываются: иначе хвост такого чата
+    // заполнял бы каждую выборку и останавливал доставку остальных чатов до конца паузы
+    private static final String CLAIM = """
+            select * from outbox_event e
+            where e.status = :pending and e.nextAttemptAt <= :now
+            and not exists (
+                select 1 from outbox_event h
+                where h.chatId = e.chatId and h.status = :pending and h.id < e.id and h.nextAttemptAt > :now
+            )
+            order by e.id
+            limit :limit
+            for update skip locked
+            """;
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final SessionFactory sessionFactory;
+    private final OutboxSink sink;
+    @Builder.Default
+    private final int threads = DEFAULT_THREADS;
+    @Builder.Default
+    private final int batchSize = DEFAULT_BATCH_SIZE;
+    @Builder.Default
+    private final Duration pollInterval = DEFAULT_POLL_INTERVAL;
+    @Builder.Default
+    private final int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    @Builder.Default
+    private final Duration baseBackoff = DEFAULT_BASE_BACKOFF;
+    @Builder.Default
+    private final Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+
+    private final List<Thread> workers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Outbox dispatcher is already running");
+        }
+        for (int i = 0; i < threads; i++) {
+            workers.add(Thread.ofPlatform()
+                    .name("outbox-dispatcher-" + i)
+                    .daemon()
+                    .start(this::dispatchLoop));
+        }
+    }
+
+    /**
+     * Останавливает потоки, дав им закончить текущую выборку.
+     */
+    public void stop(long timeout, TimeUnit unit) {
+        running.set(false);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Thread worker : workers) {
+            try {
+                worker.join(Duration.ofNanos(Math.max(deadline - System.nanoTime(), 1)));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (worker.isAlive()) {
+                log.warn("{} did not finish in {} {}", worker.getName(), timeout, unit);
+            }
+        }
+        workers.clear();
+        log.info("Outbox dispatcher stopped: {}", getMetrics());
+    }
+
+    @Override
+    public void close() {
+        stop(5, TimeUnit.SECONDS);
+    }
+
+    public OutboxMetrics getMetrics() {
+        return new OutboxMetrics(claimed.sum(), delivered.sum(), failed.sum(), deadLettered.sum(), batches.sum());
+    }
+
+    /**
+     * Одна выборка в отдельной транзакции.
+     *
+     * @return число доставленных событий
+     */
+    public int dispatchOnce() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                int count = dispatch(session, Instant.now());
+                transaction.commit();
+                return count;
+            } catch (RuntimeException ex) {
+                transaction.rollback();
+                throw ex;
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running.get()) {
+            try {
+                // полная выборка - сразу следующая, иначе очередь пуста или чаты ждут паузы
+                if (dispatchOnce() < batchSize) {
+                    Thread.sleep(pollInterval);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Outbox dispatch failed", ex);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int dispatch(StatelessSession session, Instant now) {
+        List<OutboxEvent> events = session.createNativeQuery(CLAIM, OutboxEvent.class)
+                .setParameter("pending", OutboxStatus.PENDING.name())
+                .setParameter("now", now)
+                .setParameter("limit", batchSize)
+                .list();
+        if (events.isEmpty()) {
+            return 0;
+        }
+        claimed.add(events.size());
+        batches.increment();
+
+        Map<Long, List<OutboxEvent>> byChat = events.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getChatId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, List<Long>> pendingIds = pendingIds(session, byChat.keySet(), events.getLast().getId());
+        List<Long> deliveredIds = new ArrayList<>(events.size());
+        byChat.forEach((chatId, chatEvents) -> {
+            List<OutboxEvent> deliverable = deliverable(chatEvents, pendingIds.getOrDefault(chatId, List.of()));
+            if (deliverable.isEmpty()) {
+                return;
+            }
+            try {
+                sink.deliver(deliverable);
+                deliverable.forEach(event -> deliveredIds.add(event.getId()));
+            } catch (Exception ex) {
+                fail(session, deliverable.getFirst(), ex, now);
+            }
+        });
+
+        if (!deliveredIds.isEmpty()) {
+            session.createMutationQuery("delete from OutboxEvent e where e.id in :ids")
+                    .setParameter("ids", deliveredIds)
+                    .executeUpdate();
+            delivered.add(deliveredIds.size());
+        }
+        return deliveredIds.size();
+    }
+
+    /**
+     * id всех pending-событий этих чатов до maxId, включая захваченные другими диспетчерами
+     * и ждущие повтора: обычный select их видит, блокировки ему не мешают.
+     */
+    private static Map<Long, List<Long>> pendingIds(StatelessSession session, Collection<Long> chatIds, Long maxId) {
+        return session.createSelectionQuery("""
+                        select e.chatId, e.id from OutboxEvent e
+                        where e.status = :pending and e.chatId in :chatIds and e.id <= :maxId
+                        order by e.chatId, e.id
+                        """, Object[].class)
+                .setParameter("pending", OutboxStatus.PENDING)
+                .setParameterList("chatIds", chatIds)
+                .setParameter("maxId", maxId)
+                .list()
+                .stream()
+                .collect(Collectors.groupingBy(row -> (Long) row[0],
+                        Collectors.mapping(row -> (Long) row[1], Collectors.toList())));
+    }
+
+    /**
+     * Самый длинный префикс захваченных событий чата, совпадающий с началом его pending-событий.
+     */
+    static List<OutboxEvent> deliverable(List<OutboxEvent> claimed, List<Long> pendingIds) {
+        int limit = claimed.getFirst().getAttempts() > 0 ? 1 : claimed.size();
+        int count = 0;
+        while (count < limit && count < pendingIds.size()
+                && claimed.get(count).getId().equals(pendingIds.get(count))) {
+            count++;
+        }
+        return claimed.subList(0, count);
+    }
+
+    private void fail(StatelessSession session, OutboxEvent event, Exception error, Instant now) {
+        failed.increment();
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        String message = error.toString();
+        event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxStatus.DEAD);
+            deadLettered.increment();
+            log.error("Outbox event {} of chat {} moved to DEAD after {} attempts", event.getId(), event.getChatId(),
+                    attempts, error);
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(attempts)));
+            log.warn("Outbox event {} of chat {} failed on attempt {}, next at {}", event.getId(), event.getChatId(),
+                    attempts, event.getNextAttemptAt(), error);
+        }
+        session.update(event);
+    }
+
+    private Duration backoff(int attempt) {
+        long nanos = baseBackoff.toNanos() << Math.min(attempt - 1, 20);
+        return nanos < 0 || nanos > maxBackoff.toNanos() ? maxBackoff : Duration.ofNanos(nanos);
+    }
+}
@@ -0,0 +1,89 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+import by.yungchr1sttt.hibernate.entity.OutboxEvent;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import jakarta.persistence.PersistenceUnitUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Пишет события членства в outbox в той же транзакции, что и изменение UserChat: события копятся,
+ * пока идёт транзакция, и вставляются одним батчем перед коммитом на соединении сессии, при откате
+ * не пишется ничего. Вставки StatelessSession (её события приходят без сессии) слушатель не видит,
+ * bulk-DML по UserChat пишет события сам через {@link OutboxWriter}.
+ */
+@Slf4j
+class OutboxEventListener implements PostInsertEventListener, PostDeleteEventListener {
+
+    private final Map<SessionImplementor, List<OutboxEvent>> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof UserChat userChat) {
+            append(event.getSession(), userChat, OutboxEventType.MEMBER_JOINED);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof UserChat userChat) {
+            append(event.getSession(), userChat, OutboxEventType.MEMBER_LEFT);
+        }
+    }
+
+    private void append(EventSource session, UserChat userChat, OutboxEventType type) {
+        if (session == null || userChat.getChat() == null) {
+            return;
+        }
+        if (!session.isTransactionInProgress()) {
+            log.warn("{} of UserChat {} outside of a transaction is not written to the outbox", type, userChat.getId());
+            return;
+        }
+        PersistenceUnitUtil persistenceUnitUtil = session.getFactory().getPersistenceUnitUtil();
+        Instant now = Instant.now();
+        OutboxEvent event = OutboxEvent.builder()
+                .type(type)
+                .chatId((Long) persistenceUnitUtil.getIdentifier(userChat.getChat()))
+                .userId(userChat.getUser() == null
+                        ? null
+                        : (Long) persistenceUnitUtil.getIdentifier(userChat.getUser()))
+                .occurredAt(now)
+                .nextAttemptAt(now)
+                .build();
+        pending.computeIfAbsent(session, this::register).add(event);
+    }
+
+    private List<OutboxEvent> register(SessionImplementor session) {
+        List<OutboxEvent> events = new ArrayList<>();
+        // flush перед коммитом уже прошёл, поэтому сюда попадают и события, которые он породил
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completing ->
+                write(completing, events));
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) ->
+                pending.remove(session));
+        return events;
+    }
+
+    private static void write(SessionImplementor session, List<OutboxEvent> events) {
+        try (StatelessSession writer = session.getSessionFactory()
+                .withStatelessOptions()
+                .connection(session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection())
+                .openStatelessSession()) {
+            writer.setJdbcBatchSize(events.size());
+            writer.insertMultiple(events);
+        }
+    }
+}
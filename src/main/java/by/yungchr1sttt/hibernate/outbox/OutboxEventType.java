@@ -0,0 +1,5 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+public enum OutboxEventType {
+    MEMBER_JOINED, MEMBER_LEFT
+}
@@ -0,0 +1,56 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+import by.yungchr1sttt.hibernate.entity.OutboxEvent;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Подключает запись outbox к фабрикам, в которых смаплен {@link OutboxEvent}
+ * (META-INF/services/org.hibernate.integrator.spi.Integrator). Настройка: hibernate.outbox.enabled.
+ * Доставку выполняет {@link OutboxDispatcher}, его приложение запускает само.
+ */
+public class OutboxIntegrator implements Integrator {
+
+    public static final String ENABLED = "hibernate.outbox.enabled";
+
+    private static final Set<SessionFactory> ENABLED_FACTORIES = ConcurrentHashMap.newKeySet();
+
+    public static boolean isEnabled(SessionFactory sessionFactory) {
+        return ENABLED_FACTORIES.contains(sessionFactory);
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        if (!ConfigurationHelper.getBoolean(ENABLED, sessionFactory.getProperties(), true)
+                || metadata.getEntityBinding(OutboxEvent.class.getName()) == null) {
+            return;
+        }
+        OutboxEventListener listener = new OutboxEventListener();
+        EventListenerRegistry listeners = sessionFactory.getEventEngine().getListenerRegistry();
+        listeners.appendListeners(EventType.POST_INSERT, listener);
+        listeners.appendListeners(EventType.POST_DELETE, listener);
+
+        sessionFactory.addObserver(new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryCreated(SessionFactory factory) {
+                ENABLED_FACTORIES.add(factory);
+            }
+
+            @Override
+            public void sessionFactoryClosed(SessionFactory factory) {
+                ENABLED_FACTORIES.remove(factory);
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+/**
+ * @param claimed      событий, захваченных диспетчером (включая отложенные из-за более ранних событий чата)
+ * @param delivered    событий, принятых получателем
+ * @param failed       неудачных вызовов получателя
+ * @param deadLettered событий, переведённых в DEAD после maxAttempts
+ * @param batches      непустых выборок
+ */
+public record OutboxMetrics(long claimed,
+                            long delivered,
+                            long failed,
+                            long deadLettered,
+                            long batches) {
+}
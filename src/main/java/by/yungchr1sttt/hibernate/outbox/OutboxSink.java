@@ -0,0 +1,16 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+import by.yungchr1sttt.hibernate.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Получатель событий outbox. Вызывается с событиями одного чата в порядке записи. Исключение означает,
+ * что не доставлено ничего: события придут повторно, как и после падения между доставкой и коммитом,
+ * поэтому получатель должен быть идемпотентным по id события.
+ */
+@FunctionalInterface
+public interface OutboxSink {
+
+    void deliver(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,9 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+/**
+ * Доставленные события удаляются, поэтому статусов два: PENDING ждёт доставки,
+ * DEAD - исчерпал попытки и больше не задерживает остальные события чата.
+ */
+public enum OutboxStatus {
+    PENDING, DEAD
+}
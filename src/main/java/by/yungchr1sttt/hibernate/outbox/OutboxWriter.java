@@ -0,0 +1,41 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.SharedSessionContract;
+
+import java.time.Instant;
+
+/**
+ * События для bulk-DML по UserChat, которого {@link OutboxEventListener} не видит: строки outbox
+ * пишутся одним insert ... select по тем же UserChat до их удаления, в той же транзакции.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class OutboxWriter {
+
+    private static final String MEMBERS_LEFT = """
+            insert into OutboxEvent (type, chatId, userId, occurredAt, status, attempts, nextAttemptAt)
+            select :type, uc.chat.id, uc.user.id, :now, :pending, 0, :now
+            from UserChat uc
+            where %s
+            """;
+
+    /**
+     * Пишет MEMBER_LEFT для каждого UserChat, подходящего под условие, - вызывать до delete.
+     *
+     * @param condition условие на UserChat с алиасом {@code uc} и единственным параметром {@code :id}
+     * @return число записанных событий, 0 - если outbox для этой фабрики выключен
+     */
+    public static int membersLeft(SharedSessionContract session, String condition, Object id) {
+        if (!OutboxIntegrator.isEnabled(session.getFactory())) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        return session.createMutationQuery(MEMBERS_LEFT.formatted(condition))
+                .setParameter("type", OutboxEventType.MEMBER_LEFT)
+                .setParameter("now", now)
+                .setParameter("pending", OutboxStatus.PENDING)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,12 @@
+package by.yungchr1sttt.hibernate.pagination;
+
+public enum KeysetOrder {
+
+    ID,
+
+    /**
+     * По createdAt из AuditableEntity, id - для однозначного порядка внутри одного момента.
+     * Строки без createdAt в такую выборку не попадают.
+     */
+    CREATED_AT
+}
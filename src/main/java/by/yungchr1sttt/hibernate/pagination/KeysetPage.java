@@ -0,0 +1,26 @@
+package by.yungchr1sttt.hibernate.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница keyset-пагинации. {@code nextCursor} - непрозрачная строка для следующего запроса,
+ * {@code null} на последней странице.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @param rows результат запроса с лимитом {@code pageSize + 1}: лишняя строка значит, что есть следующая страница
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int pageSize, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(pageSize - 1)).encode());
+    }
+}
@@ -0,0 +1,54 @@
+package by.yungchr1sttt.hibernate.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Ключ последней строки страницы. Клиенту отдаётся только {@link #encode()} -
+ * base64 без смысла для него, поэтому формат можно менять без поломки API.
+ */
+public record PageCursor(KeysetOrder order, Instant createdAt, long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static PageCursor afterId(long id) {
+        return new PageCursor(KeysetOrder.ID, null, id);
+    }
+
+    public static PageCursor afterCreatedAt(Instant createdAt, long id) {
+        return new PageCursor(KeysetOrder.CREATED_AT, createdAt, id);
+    }
+
+    public String encode() {
+        String raw = switch (order) {
+            case ID -> "i:" + id;
+            case CREATED_AT -> "c:" + createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        };
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException если курсор повреждён или выдан для другого порядка
+     */
+    public static PageCursor decode(String cursor, KeysetOrder expectedOrder) {
+        PageCursor decoded;
+        try {
+            String[] parts = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII).split(":");
+            decoded = switch (parts[0]) {
+                case "i" -> afterId(Long.parseLong(parts[1]));
+                case "c" -> afterCreatedAt(Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2])),
+                        Long.parseLong(parts[3]));
+                default -> throw new IllegalArgumentException("Unknown cursor type " + parts[0]);
+            };
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, ex);
+        }
+        if (decoded.order() != expectedOrder) {
+            throw new IllegalArgumentException("Cursor " + cursor + " was issued for " + decoded.order()
+                    + " ordering, not " + expectedOrder);
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,12 @@
+package by.yungchr1sttt.hibernate.pool;
+
+import by.yungchr1sttt.hibernate.metrics.LatencyHistogram;
+
+public record PoolMetrics(int active,
+                          int idle,
+                          int waiting,
+                          int total,
+                          int maxSize,
+                          long acquireTimeouts,
+                          LatencyHistogram.Snapshot acquireLatency) {
+}
@@ -0,0 +1,157 @@
+package by.yungchr1sttt.hibernate.pool;
+
+import by.yungchr1sttt.hibernate.metrics.LatencyHistogram;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.connections.internal.DatabaseConnectionInfoImpl;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.connections.spi.DatabaseConnectionInfo;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пул соединений на HikariCP вместо встроенного DriverManager-пула Hibernate.
+ * Подключается через {@value JdbcSettings#CONNECTION_PROVIDER} и настраивается свойствами hibernate.pool.*
+ */
+@Slf4j
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+    public static final String MIN_SIZE = "hibernate.pool.min_size";
+    public static final String MAX_SIZE = "hibernate.pool.max_size";
+    public static final String ACQUIRE_TIMEOUT = "hibernate.pool.acquire_timeout";
+    public static final String VALIDATION_TIMEOUT = "hibernate.pool.validation_timeout";
+    public static final String VALIDATION_QUERY = "hibernate.pool.validation_query";
+    public static final String LEAK_DETECTION_THRESHOLD = "hibernate.pool.leak_detection_threshold";
+    public static final String IDLE_TIMEOUT = "hibernate.pool.idle_timeout";
+    public static final String MAX_LIFETIME = "hibernate.pool.max_lifetime";
+    public static final String POOL_NAME = "hibernate.pool.name";
+    public static final String INITIALIZATION_FAIL_TIMEOUT = "hibernate.pool.initialization_fail_timeout";
+
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LongAdder acquireTimeouts = new LongAdder();
+    private HikariDataSource dataSource;
+
+    @Override
+    public void configure(Map<String, Object> settings) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(setting(settings, JdbcSettings.URL, JdbcSettings.JAKARTA_JDBC_URL));
+        config.setUsername(setting(settings, JdbcSettings.USER, JdbcSettings.JAKARTA_JDBC_USER));
+        config.setPassword(setting(settings, JdbcSettings.PASS, JdbcSettings.JAKARTA_JDBC_PASSWORD));
+        String driver = setting(settings, JdbcSettings.DRIVER, JdbcSettings.JAKARTA_JDBC_DRIVER);
+        if (driver != null) {
+            config.setDriverClassName(driver);
+        }
+
+        config.setPoolName(ConfigurationHelper.getString(POOL_NAME, settings, "hibernate-pool"));
+        config.setMinimumIdle(ConfigurationHelper.getInt(MIN_SIZE, settings, 2));
+        config.setMaximumPoolSize(ConfigurationHelper.getInt(MAX_SIZE, settings, 10));
+        config.setConnectionTimeout(ConfigurationHelper.getLong(ACQUIRE_TIMEOUT, settings, 5_000));
+        config.setValidationTimeout(ConfigurationHelper.getLong(VALIDATION_TIMEOUT, settings, 2_000));
+        config.setLeakDetectionThreshold(ConfigurationHelper.getLong(LEAK_DETECTION_THRESHOLD, settings, 0));
+        config.setIdleTimeout(ConfigurationHelper.getLong(IDLE_TIMEOUT, settings, 600_000));
+        config.setMaxLifetime(ConfigurationHelper.getLong(MAX_LIFETIME, settings, 1_800_000));
+        // -1 - не падать на старте, если БД недоступна (реплика поднимется позже)
+        config.setInitializationFailTimeout(ConfigurationHelper.getLong(INITIALIZATION_FAIL_TIMEOUT, settings, 1));
+        // без запроса валидации Hikari проверяет соединение через Connection.isValid()
+        String validationQuery = ConfigurationHelper.getString(VALIDATION_QUERY, settings);
+        if (validationQuery != null) {
+            config.setConnectionTestQuery(validationQuery);
+        }
+        config.setAutoCommit(ConfigurationHelper.getBoolean(JdbcSettings.AUTOCOMMIT, settings, false));
+        config.setMetricsTrackerFactory(this::createMetricsTracker);
+
+        dataSource = new HikariDataSource(config);
+        log.info("Connection pool {} started: url={}, min={}, max={}", config.getPoolName(), config.getJdbcUrl(),
+                config.getMinimumIdle(), config.getMaximumPoolSize());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public DatabaseConnectionInfo getDatabaseConnectionInfo(Dialect dialect) {
+        return new DatabaseConnectionInfoImpl(getClass(), dataSource.getJdbcUrl(), dataSource.getDriverClassName(),
+                dialect.getVersion(), String.valueOf(dataSource.isAutoCommit()), dataSource.getTransactionIsolation(),
+                dataSource.getMinimumIdle(), dataSource.getMaximumPoolSize());
+    }
+
+    public PoolMetrics getMetrics() {
+        var pool = dataSource.getHikariPoolMXBean();
+        return new PoolMetrics(pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(), pool.getTotalConnections(), dataSource.getMaximumPoolSize(),
+                acquireTimeouts.sum(), acquireLatency.snapshot());
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) {
+            log.info("Closing connection pool {}: {}", dataSource.getPoolName(), getMetrics());
+            dataSource.close();
+        }
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isAssignableFrom(getClass()) || unwrapType.isAssignableFrom(HikariDataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(getClass())) {
+            return (T) this;
+        }
+        if (unwrapType.isAssignableFrom(HikariDataSource.class)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    private IMetricsTracker createMetricsTracker(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireLatency.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                acquireTimeouts.increment();
+            }
+        };
+    }
+
+    private static String setting(Map<String, Object> settings, String name, String jakartaName) {
+        String value = ConfigurationHelper.getString(name, settings);
+        return value != null ? value : ConfigurationHelper.getString(jakartaName, settings);
+    }
+}
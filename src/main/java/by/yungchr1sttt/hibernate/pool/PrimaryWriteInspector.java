@@ -0,0 +1,26 @@
+package by.yungchr1sttt.hibernate.pool;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Pattern;
+
+/**
+ * Отмечает в {@link RoutingContext}, что поток пишет на primary - только после такой транзакции
+ * {@link RoutingConnectionProvider} держит чтения на primary в течение hibernate.routing.sticky_window.
+ * Подключается через hibernate.session_factory.statement_inspector. JDBC из doWork не видна.
+ */
+public class PrimaryWriteInspector implements StatementInspector {
+
+    // комментарии hibernate.use_sql_comments идут перед самим оператором
+    private static final Pattern WRITE = Pattern.compile(
+            "^\\s*(?:/\\*.*?\\*/\\s*)*(?:insert|update|delete|merge)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    @Override
+    public String inspect(String sql) {
+        if (!RoutingContext.isReadOnly() && WRITE.matcher(sql).find()) {
+            RoutingContext.primaryWritten();
+        }
+        return sql;
+    }
+}
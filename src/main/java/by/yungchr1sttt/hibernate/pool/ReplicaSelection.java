@@ -0,0 +1,11 @@
+package by.yungchr1sttt.hibernate.pool;
+
+public enum ReplicaSelection {
+
+    ROUND_ROBIN,
+
+    /**
+     * Реплика с наименьшим числом занятых соединений, при равенстве - по кругу.
+     */
+    LEAST_LOADED
+}
@@ -0,0 +1,228 @@
+package by.yungchr1sttt.hibernate.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.JdbcSettings;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.connections.spi.DatabaseConnectionInfo;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Запись - на primary, read-only транзакции ({@link RoutingContext#callReadOnly}) - на реплики.
+ * Каждая БД - свой {@link PooledConnectionProvider}; реплики берут настройки hibernate.pool.* и учётку primary.
+ * Реплика, не сумевшая открыть или проверить соединение, исключается до следующей успешной проверки;
+ * занятая (таймаут пула без ошибки подключения) просто пропускается. Без живых реплик чтение идёт на primary.
+ * После транзакции с записью ({@link PrimaryWriteInspector}) чтения потока sticky_window остаются на primary. Настройки - hibernate.routing.*
+ */
+@Slf4j
+public class RoutingConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+    public static final String REPLICAS = "hibernate.routing.replicas";
+    public static final String SELECTION = "hibernate.routing.selection";
+    public static final String STICKY_WINDOW = "hibernate.routing.sticky_window";
+    public static final String HEALTH_CHECK_INTERVAL = "hibernate.routing.health_check_interval";
+    public static final String REPLICA_ACQUIRE_TIMEOUT = "hibernate.routing.replica_acquire_timeout";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private PooledConnectionProvider primary;
+    private ReplicaSelection selection;
+    private long stickyWindowNanos;
+    private ScheduledExecutorService healthCheck;
+
+    @Override
+    public void configure(Map<String, Object> settings) {
+        primary = new PooledConnectionProvider();
+        primary.configure(settings);
+
+        selection = ReplicaSelection.valueOf(
+                ConfigurationHelper.getString(SELECTION, settings, "round_robin").toUpperCase());
+        stickyWindowNanos = TimeUnit.MILLISECONDS.toNanos(ConfigurationHelper.getLong(STICKY_WINDOW, settings, 0));
+        String poolName = ConfigurationHelper.getString(PooledConnectionProvider.POOL_NAME, settings, "hibernate-pool");
+        String urls = ConfigurationHelper.getString(REPLICAS, settings, "");
+        for (String url : urls.split(",")) {
+            if (url.isBlank()) {
+                continue;
+            }
+            Map<String, Object> replicaSettings = new HashMap<>(settings);
+            replicaSettings.put(JdbcSettings.URL, url.trim());
+            replicaSettings.put(PooledConnectionProvider.POOL_NAME, poolName + "-replica-" + replicas.size());
+            replicaSettings.put(PooledConnectionProvider.ACQUIRE_TIMEOUT,
+                    String.valueOf(ConfigurationHelper.getLong(REPLICA_ACQUIRE_TIMEOUT, settings, 1_000)));
+            replicaSettings.put(PooledConnectionProvider.INITIALIZATION_FAIL_TIMEOUT, "-1");
+            PooledConnectionProvider provider = new PooledConnectionProvider();
+            provider.configure(replicaSettings);
+            replicas.add(new Replica(url.trim(), provider));
+        }
+
+        if (!replicas.isEmpty()) {
+            long interval = ConfigurationHelper.getLong(HEALTH_CHECK_INTERVAL, settings, 5_000);
+            healthCheck = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("replica-health-check")
+                    .daemon()
+                    .factory());
+            healthCheck.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        log.info("Routing {} replicas with {}, read-your-writes window {} ms", replicas.size(), selection,
+                TimeUnit.NANOSECONDS.toMillis(stickyWindowNanos));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (RoutingContext.isReadOnly()) {
+            if (!RoutingContext.wrotePrimaryWithin(stickyWindowNanos)) {
+                for (Replica replica : candidates()) {
+                    try {
+                        Connection connection = replica.provider.getConnection();
+                        replicaReads.increment();
+                        return connection;
+                    } catch (SQLTransientConnectionException ex) {
+                        // таймаут без причины - пул реплики просто занят: пробуем следующую, не исключая
+                        if (ex.getCause() != null) {
+                            eject(replica, ex);
+                        }
+                    } catch (SQLException ex) {
+                        eject(replica, ex);
+                    }
+                }
+            }
+            primaryReads.increment();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+        if (!RoutingContext.isReadOnly()) {
+            RoutingContext.primaryReleased();
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public DatabaseConnectionInfo getDatabaseConnectionInfo(Dialect dialect) {
+        return primary.getDatabaseConnectionInfo(dialect);
+    }
+
+    public RoutingMetrics getMetrics() {
+        List<RoutingMetrics.Replica> replicaMetrics = replicas.stream()
+                .map(replica -> new RoutingMetrics.Replica(replica.url, replica.healthy,
+                        replica.provider.getMetrics()))
+                .toList();
+        return new RoutingMetrics(primary.getMetrics(), replicaMetrics, replicaReads.sum(), primaryReads.sum());
+    }
+
+    @Override
+    public void stop() {
+        if (healthCheck != null) {
+            healthCheck.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.provider.stop());
+        if (primary != null) {
+            primary.stop();
+        }
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isAssignableFrom(getClass()) || primary.isUnwrappableAs(unwrapType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(getClass())) {
+            return (T) this;
+        }
+        if (primary.isUnwrappableAs(unwrapType)) {
+            return primary.unwrap(unwrapType);
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    /**
+     * Живые реплики в порядке попыток: по кругу со сдвигом на каждый вызов,
+     * для LEAST_LOADED - ещё и по числу занятых соединений (сортировка стабильная, сдвиг сохраняется).
+     */
+    private List<Replica> candidates() {
+        List<Replica> healthy = replicas.stream()
+                .filter(replica -> replica.healthy)
+                .toList();
+        if (healthy.size() <= 1) {
+            return healthy;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), healthy.size());
+        List<Replica> ordered = new ArrayList<>(healthy.size());
+        for (int i = 0; i < healthy.size(); i++) {
+            ordered.add(healthy.get((start + i) % healthy.size()));
+        }
+        if (selection == ReplicaSelection.LEAST_LOADED) {
+            ordered.sort(Comparator.comparingInt(Replica::activeConnections));
+        }
+        return ordered;
+    }
+
+    private void eject(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} ejected: {}", replica.url, cause.getMessage());
+        }
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.provider.getConnection()) {
+                if (!connection.isValid(1)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Replica {} is back", replica.url);
+                }
+            } catch (SQLException ex) {
+                eject(replica, ex);
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String url;
+        private final PooledConnectionProvider provider;
+        private volatile boolean healthy = true;
+
+        private Replica(String url, PooledConnectionProvider provider) {
+            this.url = url;
+            this.provider = provider;
+        }
+
+        private int activeConnections() {
+            return provider.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections();
+        }
+    }
+}
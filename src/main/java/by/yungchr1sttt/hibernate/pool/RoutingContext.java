@@ -0,0 +1,58 @@
+package by.yungchr1sttt.hibernate.pool;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.function.Supplier;
+
+/**
+ * Куда {@link RoutingConnectionProvider} отдаст следующее соединение этого потока.
+ * Соединение берётся лениво, в начале транзакции, поэтому флаг должен стоять до beginTransaction.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    // поток писал на primary через текущее соединение (PrimaryWriteInspector)
+    private static final ThreadLocal<Boolean> PRIMARY_WRITTEN = new ThreadLocal<>();
+    // когда поток последний раз вернул соединение primary после записи - для read-your-writes
+    private static final ThreadLocal<Long> PRIMARY_WRITTEN_AT = new ThreadLocal<>();
+
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    public static <T> T callReadOnly(Supplier<T> work) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                READ_ONLY.remove();
+            } else {
+                READ_ONLY.set(previous);
+            }
+        }
+    }
+
+    static void primaryWritten() {
+        PRIMARY_WRITTEN.set(Boolean.TRUE);
+    }
+
+    /**
+     * Окно отсчитывается от возврата соединения, то есть от конца транзакции с записью;
+     * транзакции на primary без записи его не сдвигают.
+     */
+    static void primaryReleased() {
+        if (Boolean.TRUE.equals(PRIMARY_WRITTEN.get())) {
+            PRIMARY_WRITTEN.remove();
+            PRIMARY_WRITTEN_AT.set(System.nanoTime());
+        }
+    }
+
+    static boolean wrotePrimaryWithin(long windowNanos) {
+        Long writtenAt = PRIMARY_WRITTEN_AT.get();
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+}
@@ -0,0 +1,16 @@
+package by.yungchr1sttt.hibernate.pool;
+
+import java.util.List;
+
+/**
+ * @param replicaReads  read-only соединения, выданные репликами
+ * @param primaryReads  read-only соединения, выданные primary: read-your-writes или все реплики недоступны
+ */
+public record RoutingMetrics(PoolMetrics primary,
+                             List<Replica> replicas,
+                             long replicaReads,
+                             long primaryReads) {
+
+    public record Replica(String url, boolean healthy, PoolMetrics pool) {
+    }
+}
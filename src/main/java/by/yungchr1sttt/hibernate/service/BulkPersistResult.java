@@ -0,0 +1,11 @@
+package by.yungchr1sttt.hibernate.service;
+
+import java.time.Duration;
+
+public record BulkPersistResult(long rows, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,87 @@
+package by.yungchr1sttt.hibernate.service;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.time.Duration;
+
+/**
+ * Массовая запись графов Company -> User -> Profile/UserChat.
+ * Вставки уходят JDBC-батчами (hibernate.jdbc.batch_size + order_inserts),
+ * а persistence context сбрасывается и очищается после каждой порции,
+ * чтобы память не росла вместе с объёмом загрузки.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BulkPersister {
+
+    public static final int DEFAULT_CHUNK_SIZE = 50;
+
+    private final SessionFactory sessionFactory;
+    private final int chunkSize;
+
+    public BulkPersister(SessionFactory sessionFactory) {
+        this(sessionFactory, DEFAULT_CHUNK_SIZE);
+    }
+
+    public BulkPersistResult persist(Iterable<Company> companies) {
+        long start = System.nanoTime();
+        long rows = 0;
+        long rowsInChunk = 0;
+
+        try (Session session = sessionFactory.openSession()) {
+            session.setJdbcBatchSize(chunkSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (Company company : companies) {
+                    long graphRows = persistGraph(session, company);
+                    rows += graphRows;
+                    rowsInChunk += graphRows;
+                    if (rowsInChunk >= chunkSize) {
+                        session.flush();
+                        session.clear();
+                        rowsInChunk = 0;
+                    }
+                }
+                transaction.commit();
+            } catch (RuntimeException ex) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw ex;
+            }
+        }
+
+        BulkPersistResult result = new BulkPersistResult(rows, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Persisted {} rows in {} ms ({} rows/sec)",
+                result.rows(), result.elapsed().toMillis(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private long persistGraph(Session session, Company company) {
+        // users и их profile сохраняются каскадом от company
+        session.persist(company);
+        long rows = 1;
+        for (User user : company.getUsers()) {
+            rows++;
+            if (user.getProfile() != null) {
+                rows++;
+            }
+            for (UserChat userChat : user.getUserChats()) {
+                if (userChat.getChat().getId() == null) {
+                    session.persist(userChat.getChat());
+                    rows++;
+                }
+                session.persist(userChat);
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,97 @@
+package by.yungchr1sttt.hibernate.service;
+
+import jakarta.persistence.OptimisticLockException;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Выполняет unit of work в отдельной транзакции и при конфликте версий (@Version) повторяет его
+ * в новой сессии: сущности перечитываются, изменение применяется заново к актуальному состоянию.
+ * Пауза между попытками - случайная в [0, min(maxBackoff, baseBackoff * 2^попытка)],
+ * чтобы конкурирующие запросы не сталкивались повторно в один и тот же момент.
+ * Поэтому unit of work должен сам читать всё, что меняет, и не иметь побочных эффектов вне сессии.
+ */
+@Slf4j
+@Builder
+public class OptimisticRetryExecutor {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final Duration DEFAULT_BASE_BACKOFF = Duration.ofMillis(5);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMillis(200);
+
+    private final SessionFactory sessionFactory;
+    @Builder.Default
+    private final int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    @Builder.Default
+    private final Duration baseBackoff = DEFAULT_BASE_BACKOFF;
+    @Builder.Default
+    private final Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+
+    private final LongAdder units = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public <R> R execute(Function<Session, R> unitOfWork) {
+        units.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return sessionFactory.fromTransaction(unitOfWork);
+            } catch (RuntimeException ex) {
+                if (!isConflict(ex)) {
+                    throw ex;
+                }
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    log.warn("Optimistic lock conflict, giving up after {} attempts", attempt);
+                    throw ex;
+                }
+                retries.increment();
+                log.debug("Optimistic lock conflict on attempt {}, retrying", attempt);
+                backoff(attempt, ex);
+            }
+        }
+    }
+
+    public void executeVoid(Consumer<Session> unitOfWork) {
+        execute(session -> {
+            unitOfWork.accept(session);
+            return null;
+        });
+    }
+
+    public RetryMetrics getMetrics() {
+        return new RetryMetrics(units.sum(), conflicts.sum(), retries.sum(), exhausted.sum());
+    }
+
+    static boolean isConflict(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt, RuntimeException conflict) {
+        long ceiling = Math.min(maxBackoff.toNanos(), baseBackoff.toNanos() << Math.min(attempt, 20));
+        long pause = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(pause));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            conflict.addSuppressed(ex);
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package by.yungchr1sttt.hibernate.service;
+
+/**
+ * @param units     вызовов execute
+ * @param conflicts попыток, упавших на конфликте версий
+ * @param retries   повторных попыток
+ * @param exhausted вызовов, которые так и не прошли за maxAttempts
+ */
+public record RetryMetrics(long units, long conflicts, long retries, long exhausted) {
+
+    public long attempts() {
+        return units + retries;
+    }
+
+    /**
+     * Доля попыток, закончившихся конфликтом: рост - сигнал дробить агрегат или разносить горячие строки.
+     */
+    public double conflictRate() {
+        long attempts = attempts();
+        return attempts == 0 ? 0 : (double) conflicts / attempts;
+    }
+}
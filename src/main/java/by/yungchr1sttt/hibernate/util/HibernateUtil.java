@@ -1,24 +1,357 @@
 package by.yungchr1sttt.hibernate.util;
 
+import by.yungchr1sttt.hibernate.audit.AuditIntegrator;
+import by.yungchr1sttt.hibernate.audit.AuditMetrics;
+import by.yungchr1sttt.hibernate.audit.AuditTrail;
 import by.yungchr1sttt.hibernate.convertor.BirthdayConverter;
-import by.yungchr1sttt.hibernate.entity.Birthday;
-import by.yungchr1sttt.hibernate.entity.Company;
-import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.pool.PoolMetrics;
+import by.yungchr1sttt.hibernate.pool.PooledConnectionProvider;
+import by.yungchr1sttt.hibernate.pool.RoutingConnectionProvider;
+import by.yungchr1sttt.hibernate.pool.RoutingContext;
+import by.yungchr1sttt.hibernate.pool.RoutingMetrics;
+import jakarta.persistence.CacheStoreMode;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.InheritanceType;
 import jakarta.persistence.Persistence;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.boot.spi.MetadataImplementor;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
 public class HibernateUtil {
 
+    public static final String DEFAULT_CONFIGURATION = "hibernate.cfg.xml";
+    public static final String DEFAULT_PERSISTENCE_UNIT = "myJpaUnit";
+    // single_table (по умолчанию, из аннотаций), joined или table_per_class
+    public static final String USER_INHERITANCE = "hibernate.mapping.user_inheritance";
+    // быстрый старт: без схемы, JDBC-метаданных, проверки именованных запросов и orm.xml, см. applyFastBoot
+    public static final String FAST_BOOT = "hibernate.fast_boot";
+
+    // Одна фабрика на конфигурацию: bootstrap метаданных дорогой, поэтому строим его один раз
+    private static final Map<String, SessionFactory> SESSION_FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<String, EntityManagerFactory> ENTITY_MANAGER_FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<String, Duration> BOOTSTRAP_TIMINGS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(HibernateUtil::shutdown, "hibernate-shutdown"));
+    }
+
+    public static SessionFactory getSessionFactory() {
+        return getSessionFactory(DEFAULT_CONFIGURATION);
+    }
+
+    public static SessionFactory getSessionFactory(String configuration) {
+        SessionFactory sessionFactory = SESSION_FACTORIES.computeIfAbsent(configuration,
+                key -> timed("SessionFactory[" + key + "]", () -> buildSessionFactory(key)));
+        if (sessionFactory.isClosed()) {
+            // кто-то закрыл общую фабрику вручную - выбрасываем её и строим заново
+            SESSION_FACTORIES.remove(configuration, sessionFactory);
+            return getSessionFactory(configuration);
+        }
+        return sessionFactory;
+    }
+
+    public static EntityManagerFactory getEntityManagerFactory() {
+        return getEntityManagerFactory(DEFAULT_PERSISTENCE_UNIT);
+    }
+
+    public static EntityManagerFactory getEntityManagerFactory(String persistenceUnit) {
+        EntityManagerFactory entityManagerFactory = ENTITY_MANAGER_FACTORIES.computeIfAbsent(persistenceUnit,
+                key -> timed("EntityManagerFactory[" + key + "]", () -> Persistence.createEntityManagerFactory(key)));
+        if (!entityManagerFactory.isOpen()) {
+            ENTITY_MANAGER_FACTORIES.remove(persistenceUnit, entityManagerFactory);
+            return getEntityManagerFactory(persistenceUnit);
+        }
+        return entityManagerFactory;
+    }
+
+    /**
+     * Прогрев фабрики: парсит HQL по каждой сущности, резолвит именованные entity graph
+     * и открывает первое соединение, чтобы первый реальный запрос не платил за это.
+     */
+    public static void warmUp(SessionFactory sessionFactory) {
+        long start = System.nanoTime();
+        try (Session session = sessionFactory.openSession()) {
+            sessionFactory.getMetamodel().getEntities().forEach(entity -> {
+                session.createSelectionQuery("from " + entity.getName(), entity.getJavaType());
+                sessionFactory.getNamedEntityGraphs(entity.getJavaType()).keySet()
+                        .forEach(session::getEntityGraph);
+            });
+            session.doWork(connection -> connection.isValid(0));
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Warm-up of {} entities finished in {} ms",
+                sessionFactory.getMetamodel().getEntities().size(), elapsed.toMillis());
+    }
+
+    public static void warmUp(EntityManagerFactory entityManagerFactory) {
+        warmUp(entityManagerFactory.unwrap(SessionFactory.class));
+    }
+
+    /**
+     * Чтение для списков: StatelessSession (без persistence context и снимков для dirty checking)
+     * в read-only транзакции. Пул сбрасывает readOnly соединения при возврате.
+     * С {@link RoutingConnectionProvider} соединение берётся с реплики, и кэш второго уровня только читается:
+     * данные отстающей реплики не должны попасть в кэш и отдаваться читателям primary.
+     */
+    public static <R> R fromReadOnlySession(SessionFactory sessionFactory, Function<StatelessSession, R> work) {
+        return RoutingContext.callReadOnly(() -> {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                if (routesToReplicas(sessionFactory)) {
+                    session.setCacheMode(CacheMode.GET);
+                }
+                Transaction transaction = session.beginTransaction();
+                try {
+                    session.doWork(connection -> connection.setReadOnly(true));
+                    R result = work.apply(session);
+                    transaction.commit();
+                    return result;
+                } catch (RuntimeException ex) {
+                    transaction.rollback();
+                    throw ex;
+                }
+            }
+        });
+    }
+
+    /**
+     * То же для обычной сессии, когда нужны ленивые связи или кэш второго уровня:
+     * сущности загружаются read-only, без снимков для dirty checking. С реплики кэш так же только читается.
+     */
+    public static <R> R fromReadOnlyTransaction(SessionFactory sessionFactory, Function<Session, R> work) {
+        return RoutingContext.callReadOnly(() -> {
+            try (Session session = sessionFactory.openSession()) {
+                session.setDefaultReadOnly(true);
+                if (routesToReplicas(sessionFactory)) {
+                    // find() берёт режим не из setCacheMode, а из свойств сессии - нужны оба
+                    session.setCacheMode(CacheMode.GET);
+                    session.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+                }
+                Transaction transaction = session.beginTransaction();
+                try {
+                    session.doWork(connection -> connection.setReadOnly(true));
+                    R result = work.apply(session);
+                    transaction.commit();
+                    return result;
+                } catch (RuntimeException ex) {
+                    transaction.rollback();
+                    throw ex;
+                }
+            }
+        });
+    }
+
+    /**
+     * Метрики пула, если фабрика настроена на {@link PooledConnectionProvider}
+     * (hibernate.connection.provider_class); для встроенного DriverManager-пула метрик нет.
+     */
+    public static Optional<PoolMetrics> getPoolMetrics(SessionFactory sessionFactory) {
+        ConnectionProvider connectionProvider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (connectionProvider == null || !connectionProvider.isUnwrappableAs(PooledConnectionProvider.class)) {
+            return Optional.empty();
+        }
+        return Optional.of(connectionProvider.unwrap(PooledConnectionProvider.class).getMetrics());
+    }
+
+    /**
+     * Распределение чтений по репликам и их состояние, если фабрика настроена на {@link RoutingConnectionProvider}.
+     */
+    public static Optional<RoutingMetrics> getRoutingMetrics(SessionFactory sessionFactory) {
+        ConnectionProvider connectionProvider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        if (connectionProvider == null || !connectionProvider.isUnwrappableAs(RoutingConnectionProvider.class)) {
+            return Optional.empty();
+        }
+        return Optional.of(connectionProvider.unwrap(RoutingConnectionProvider.class).getMetrics());
+    }
+
+    private static boolean routesToReplicas(SessionFactory sessionFactory) {
+        ConnectionProvider connectionProvider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+        return connectionProvider != null && connectionProvider.isUnwrappableAs(RoutingConnectionProvider.class);
+    }
+
+    /**
+     * Метрики асинхронного аудита: глубина очереди, отброшенные при переполнении и записанные события.
+     */
+    public static Optional<AuditMetrics> getAuditMetrics(SessionFactory sessionFactory) {
+        return AuditIntegrator.getAuditTrail(sessionFactory).map(AuditTrail::getMetrics);
+    }
+
+    /**
+     * Статистика попаданий/промахов по регионам кэша второго уровня и кэша запросов.
+     * Требует hibernate.generate_statistics=true.
+     */
+    public static Map<String, CacheRegionStatistics> getCacheStatistics(SessionFactory sessionFactory) {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, CacheRegionStatistics> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            regions.put(region, statistics.getCacheRegionStatistics(region));
+        }
+        return regions;
+    }
+
+    public static Map<String, Duration> getBootstrapTimings() {
+        return new LinkedHashMap<>(BOOTSTRAP_TIMINGS);
+    }
+
+    public static synchronized void shutdown() {
+        SESSION_FACTORIES.values().forEach(HibernateUtil::closeQuietly);
+        SESSION_FACTORIES.clear();
+        ENTITY_MANAGER_FACTORIES.values().forEach(HibernateUtil::closeQuietly);
+        ENTITY_MANAGER_FACTORIES.clear();
+    }
+
     public static SessionFactory buildSessionFactory() {
-        Configuration configuration = new Configuration().configure();
+        return buildSessionFactory(DEFAULT_CONFIGURATION);
+    }
+
+    public static SessionFactory buildSessionFactory(String configurationResource) {
+        Metadata metadata = buildMetadata(configurationResource, Map.of());
+        return timed("SessionFactory[" + configurationResource + "] build",
+                () -> metadata.getSessionFactoryBuilder().build());
+    }
+
+    public static SessionFactory buildSessionFactory(Configuration configuration) {
         configuration.addAttributeConverter(new BirthdayConverter());
+        InheritanceType userInheritance = userInheritance(configuration.getProperty(USER_INHERITANCE));
+        if (isFastBoot(configuration.getProperty(FAST_BOOT))) {
+            applyFastBoot(configuration.getProperties(), userInheritance, configuration::setProperty);
+        }
+        if (userInheritance != InheritanceType.SINGLE_TABLE) {
+            // orm.xml поверх аннотаций меняет только стратегию, остальной маппинг User остаётся прежним
+            configuration.addResource(userMappingResource(userInheritance));
+        }
         return configuration.buildSessionFactory();
     }
 
+    /**
+     * Загрузка по фазам, каждая со своим замером: реестр сервисов (настройки, пул, диалект),
+     * метаданные (разбор аннотаций и orm.xml), затем в buildSessionFactory - сборка фабрики
+     * (персистеры, запросы, кэш). Реестр закрывается вместе с фабрикой; если фабрику не строят,
+     * его освобождает вызывающий (см. {@link SchemaTool}).
+     */
+    static Metadata buildMetadata(String configurationResource, Map<String, Object> overrides) {
+        String name = "SessionFactory[" + configurationResource + "]";
+        StandardServiceRegistry registry = timed(name + " registry", () -> {
+            StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder().configure(configurationResource)
+                    .applySettings(overrides);
+            Map<String, Object> settings = builder.getSettings();
+            if (isFastBoot(settings.get(FAST_BOOT))) {
+                applyFastBoot(settings, userInheritance(settings.get(USER_INHERITANCE)), builder::applySetting);
+            }
+            return builder.build();
+        });
+        try {
+            return timed(name + " metadata", () -> {
+                InheritanceType userInheritance = userInheritance(registry.requireService(ConfigurationService.class)
+                        .getSettings()
+                        .get(USER_INHERITANCE));
+                MetadataSources sources = new MetadataSources(registry);
+                if (userInheritance != InheritanceType.SINGLE_TABLE) {
+                    sources.addResource(userMappingResource(userInheritance));
+                }
+                return sources.getMetadataBuilder()
+                        .applyAttributeConverter(new BirthdayConverter())
+                        .build();
+            });
+        } catch (RuntimeException ex) {
+            StandardServiceRegistryBuilder.destroy(registry);
+            throw ex;
+        }
+    }
+
+    static StandardServiceRegistry serviceRegistry(Metadata metadata) {
+        return ((MetadataImplementor) metadata).getMetadataBuildingOptions().getServiceRegistry();
+    }
+
+    /**
+     * Настройки быстрого старта, если они не заданы явно. Схема на старте не трогается вовсе
+     * (её ведёт {@link SchemaTool} отдельным шагом), JDBC-метаданные не читаются, когда диалект указан,
+     * именованные запросы не компилируются заранее (их проверяет SchemaTool validate),
+     * а orm.xml не разбирается, пока не нужен для стратегии наследования.
+     */
+    private static void applyFastBoot(Map<?, ?> settings, InheritanceType userInheritance,
+                                      BiConsumer<String, String> setting) {
+        Object schemaAction = settings.get(AvailableSettings.HBM2DDL_AUTO);
+        if (schemaAction != null && !"none".equals(schemaAction.toString().trim())) {
+            log.warn("{}={} is ignored in fast boot mode, run SchemaTool instead", AvailableSettings.HBM2DDL_AUTO,
+                    schemaAction);
+        }
+        setting.accept(AvailableSettings.HBM2DDL_AUTO, "none");
+        if (settings.get(AvailableSettings.DIALECT) != null && !settings.containsKey(AvailableSettings.ALLOW_METADATA_ON_BOOT)) {
+            setting.accept(AvailableSettings.ALLOW_METADATA_ON_BOOT, "false");
+        }
+        if (!settings.containsKey(AvailableSettings.QUERY_STARTUP_CHECKING)) {
+            setting.accept(AvailableSettings.QUERY_STARTUP_CHECKING, "false");
+        }
+        if (userInheritance == InheritanceType.SINGLE_TABLE && !settings.containsKey(AvailableSettings.XML_MAPPING_ENABLED)) {
+            setting.accept(AvailableSettings.XML_MAPPING_ENABLED, "false");
+        }
+    }
+
+    private static boolean isFastBoot(Object value) {
+        return value != null && Boolean.parseBoolean(value.toString().trim());
+    }
+
+    private static String userMappingResource(InheritanceType userInheritance) {
+        return "orm/user-" + userInheritance.name().toLowerCase(Locale.ROOT) + ".xml";
+    }
+
+    private static InheritanceType userInheritance(Object value) {
+        return value == null || value.toString().isBlank()
+                ? InheritanceType.SINGLE_TABLE
+                : InheritanceType.valueOf(value.toString().trim().toUpperCase(Locale.ROOT));
+    }
+
     public static EntityManagerFactory buildEntityManagerFactory() {
-        return Persistence.createEntityManagerFactory("myJpaUnit");
+        return Persistence.createEntityManagerFactory(DEFAULT_PERSISTENCE_UNIT);
     }
-}
 
+    private static <T> T timed(String name, Supplier<T> bootstrap) {
+        long start = System.nanoTime();
+        T factory = bootstrap.get();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        BOOTSTRAP_TIMINGS.put(name, elapsed);
+        log.info("{} bootstrapped in {} ms", name, elapsed.toMillis());
+        return factory;
+    }
+
+    private static void closeQuietly(AutoCloseable factory) {
+        try {
+            factory.close();
+        } catch (Exception ex) {
+            log.warn("Failed to close {}", factory, ex);
+        }
+    }
+}
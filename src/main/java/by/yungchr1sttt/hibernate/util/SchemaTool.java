@@ -0,0 +1,115 @@
+package by.yungchr1sttt.hibernate.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.connections.internal.UserSuppliedConnectionProviderImpl;
+import org.hibernate.tool.schema.Action;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Управление схемой отдельным шагом (деплой, миграция, сборка) вместо hibernate.hbm2ddl.auto
+ * на старте приложения. Аргументы - key=value:
+ * <pre>
+ * action=update|create|drop|validate|script config=hibernate.cfg.xml output=target/schema.sql
+ * </pre>
+ * script пишет DDL всей схемы в output; при заданном hibernate.dialect база для этого не нужна.
+ * validate кроме таблиц компилирует HQL именованных запросов: в режиме быстрого старта приложение этого не делает.
+ */
+@Slf4j
+public final class SchemaTool {
+
+    public static final Path DEFAULT_OUTPUT = Path.of("target", "schema.sql");
+
+    public enum Command {
+        CREATE, UPDATE, VALIDATE, DROP, SCRIPT
+    }
+
+    private SchemaTool() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            options.put(option[0], option[1]);
+        }
+
+        run(options.getOrDefault("config", HibernateUtil.DEFAULT_CONFIGURATION),
+                Command.valueOf(options.getOrDefault("action", "validate").toUpperCase(Locale.ROOT)),
+                options.containsKey("output") ? Path.of(options.get("output")) : DEFAULT_OUTPUT);
+    }
+
+    public static void run(String configurationResource, Command command, Path output) {
+        long start = System.nanoTime();
+        // схемой здесь управляет только command, именованные запросы проверяются всегда, кэш не нужен
+        Map<String, Object> overrides = new HashMap<>(Map.of(
+                AvailableSettings.HBM2DDL_AUTO, "none",
+                AvailableSettings.QUERY_STARTUP_CHECKING, "true",
+                AvailableSettings.USE_SECOND_LEVEL_CACHE, "false",
+                AvailableSettings.USE_QUERY_CACHE, "false"));
+        if (command == Command.SCRIPT && hasDialect(configurationResource)) {
+            // DDL строится по диалекту, пул соединений (и доступная база) не нужен
+            overrides.put(AvailableSettings.CONNECTION_PROVIDER, UserSuppliedConnectionProviderImpl.class.getName());
+            overrides.put(AvailableSettings.ALLOW_METADATA_ON_BOOT, "false");
+        }
+        Metadata metadata = HibernateUtil.buildMetadata(configurationResource, overrides);
+        StandardServiceRegistry registry = HibernateUtil.serviceRegistry(metadata);
+        try {
+            Map<String, Object> settings = new HashMap<>(registry.requireService(ConfigurationService.class).getSettings());
+            settings.remove(AvailableSettings.HBM2DDL_AUTO);
+            if (command == Command.SCRIPT) {
+                settings.put(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, Action.NONE);
+                settings.put(AvailableSettings.JAKARTA_HBM2DDL_SCRIPTS_ACTION, Action.CREATE_ONLY);
+                settings.put(AvailableSettings.JAKARTA_HBM2DDL_SCRIPTS_CREATE_TARGET, output.toString());
+                settings.put(AvailableSettings.HBM2DDL_SCRIPTS_CREATE_APPEND, "false");
+                settings.put(AvailableSettings.HBM2DDL_DELIMITER, ";");
+                settings.put(AvailableSettings.FORMAT_SQL, "true");
+            } else {
+                settings.put(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, action(command));
+            }
+            SchemaManagementToolCoordinator.process(metadata, registry, settings, null);
+
+            if (command == Command.VALIDATE) {
+                try (SessionFactory ignored = metadata.getSessionFactoryBuilder()
+                        .applyNamedQueryCheckingOnStartup(true)
+                        .build()) {
+                    log.debug("Named queries of {} are valid", configurationResource);
+                }
+            }
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+        log.info("Schema {} for {} finished in {} ms{}", command.name().toLowerCase(Locale.ROOT), configurationResource,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), command == Command.SCRIPT ? ", DDL in " + output : "");
+    }
+
+    private static boolean hasDialect(String configurationResource) {
+        return new StandardServiceRegistryBuilder().configure(configurationResource)
+                .getSettings()
+                .get(AvailableSettings.DIALECT) != null;
+    }
+
+    private static Action action(Command command) {
+        return switch (command) {
+            case CREATE -> Action.CREATE_ONLY;
+            case UPDATE -> Action.UPDATE;
+            case VALIDATE -> Action.VALIDATE;
+            case DROP -> Action.DROP;
+            case SCRIPT -> Action.NONE;
+        };
+    }
+}
@@ -0,0 +1,15 @@
+-- Колонки memberCount (счётчики участников Company, Chat и Course, PostgreSQL). Существующие строки
+-- получают точное значение тем же подсчётом, что и recountMembers в CompanyDao, ChatDao и CourseDao.
+-- Выполнять при остановленном приложении: вставки во время пересчёта в счётчик не попадут.
+
+alter table company add column if not exists memberCount integer default 0;
+update company c set memberCount = (select count(*) from public.users u where u.company_id = c.id);
+alter table company alter column memberCount set not null;
+
+alter table chat add column if not exists memberCount integer default 0;
+update chat c set memberCount = (select count(*) from users_chat uc where uc.chat_id = c.id);
+alter table chat alter column memberCount set not null;
+
+alter table courses add column if not exists memberCount integer default 0;
+update courses c set memberCount = (select count(*) from students s where s.course_id = c.id);
+alter table courses alter column memberCount set not null;
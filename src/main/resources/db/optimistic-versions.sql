@@ -0,0 +1,18 @@
+-- Колонки @Version для Company, Chat и Course (PostgreSQL). Существующие строки получают версию 0:
+-- с null-версией Hibernate считал бы загруженную сущность несохранённой, а update по версии не находил бы строку.
+-- Выполнять при остановленном приложении.
+
+alter table company add column if not exists version bigint;
+update company set version = 0 where version is null;
+alter table company alter column version set default 0;
+alter table company alter column version set not null;
+
+alter table chat add column if not exists version bigint;
+update chat set version = 0 where version is null;
+alter table chat alter column version set default 0;
+alter table chat alter column version set not null;
+
+alter table courses add column if not exists version bigint;
+update courses set version = 0 where version is null;
+alter table courses alter column version set default 0;
+alter table courses alter column version set not null;
@@ -0,0 +1,54 @@
+-- Перевод существующей PostgreSQL-схемы с IDENTITY на sequence с pooled-lo (ConcurrentPooledLoOptimizer).
+-- Выполнять при остановленном приложении. increment by обязан совпадать с allocationSize в @SequenceGenerator:
+-- значение sequence - нижняя граница блока id, меньший шаг дал бы пересекающиеся блоки.
+-- setval(..., false): следующий nextval вернёт max(id) + 1, уже выданные id не повторятся.
+
+alter table company alter column id drop identity if exists;
+alter table company alter column id drop default;
+create sequence if not exists company_seq increment by 20;
+select setval('company_seq', coalesce((select max(id) from company), 0) + 1, false);
+
+alter table chat alter column id drop identity if exists;
+alter table chat alter column id drop default;
+create sequence if not exists chat_seq increment by 20;
+select setval('chat_seq', coalesce((select max(id) from chat), 0) + 1, false);
+
+alter table courses alter column id drop identity if exists;
+alter table courses alter column id drop default;
+create sequence if not exists courses_seq increment by 20;
+select setval('courses_seq', coalesce((select max(id) from courses), 0) + 1, false);
+
+alter table authors alter column id drop identity if exists;
+alter table authors alter column id drop default;
+create sequence if not exists authors_seq increment by 20;
+select setval('authors_seq', coalesce((select max(id) from authors), 0) + 1, false);
+
+alter table profile alter column id drop identity if exists;
+alter table profile alter column id drop default;
+create sequence if not exists profile_seq increment by 50;
+select setval('profile_seq', coalesce((select max(id) from profile), 0) + 1, false);
+
+alter table students alter column id drop identity if exists;
+alter table students alter column id drop default;
+create sequence if not exists students_seq increment by 50;
+select setval('students_seq', coalesce((select max(id) from students), 0) + 1, false);
+
+alter table student_profile alter column id drop identity if exists;
+alter table student_profile alter column id drop default;
+create sequence if not exists student_profile_seq increment by 50;
+select setval('student_profile_seq', coalesce((select max(id) from student_profile), 0) + 1, false);
+
+alter table books alter column id drop identity if exists;
+alter table books alter column id drop default;
+create sequence if not exists books_seq increment by 50;
+select setval('books_seq', coalesce((select max(id) from books), 0) + 1, false);
+
+alter table users_chat alter column id drop identity if exists;
+alter table users_chat alter column id drop default;
+create sequence if not exists users_chat_seq increment by 100;
+select setval('users_chat_seq', coalesce((select max(id) from users_chat), 0) + 1, false);
+
+-- users раньше ссылался на необъявленный user_gen, и Hibernate брал одноимённую sequence с шагом 50
+create sequence if not exists public.users_seq increment by 50;
+select setval('public.users_seq', coalesce((select max(id) from public.users), 0) + 1, false);
+drop sequence if exists user_gen;
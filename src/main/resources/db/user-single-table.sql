@@ -0,0 +1,8 @@
+-- Перевод users (PostgreSQL) с TABLE_PER_CLASS на SINGLE_TABLE: колонка-дискриминатор и поля подклассов.
+-- Таблиц подклассов при TABLE_PER_CLASS в схеме не было, поэтому все существующие строки - обычные USER.
+
+alter table public.users add column if not exists type varchar(16);
+update public.users set type = 'USER' where type is null;
+alter table public.users alter column type set not null;
+alter table public.users add column if not exists language varchar(255);
+alter table public.users add column if not exists project varchar(255);
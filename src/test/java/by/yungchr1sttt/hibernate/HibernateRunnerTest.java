@@ -1,22 +1,31 @@
 package by.yungchr1sttt.hibernate;
 
 import by.yungchr1sttt.hibernate.entity.*;
+import by.yungchr1sttt.hibernate.instrumentation.StatementCounter;
 import by.yungchr1sttt.hibernate.util.HibernateUtil;
 import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.Cleanup;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 
 class HibernateRunnerTest {
 
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
     @Test
     public void solveProblemUsingNamedEntityGraph() {
-        @Cleanup var em = HibernateUtil.buildEntityManagerFactory().createEntityManager();
+        @Cleanup var em = HibernateUtil.getEntityManagerFactory().createEntityManager();
 
         // Данный способ с использованием NamedEntityGraph позволил решить проблему N+1
         // с использованием лишь одного запроса
@@ -34,7 +43,7 @@ class HibernateRunnerTest {
 
     @Test
     public void solveProblemUsingEntityGraph() {
-        @Cleanup var em = HibernateUtil.buildEntityManagerFactory().createEntityManager();
+        @Cleanup var em = HibernateUtil.getEntityManagerFactory().createEntityManager();
 
         // Данный способ с использованием EntityGraph позволил решить проблему N+1
         // с использованием лишь одного запроса
@@ -53,7 +62,7 @@ class HibernateRunnerTest {
 
     @Test
     public void solveProblemUsingBatchSize() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -75,7 +84,7 @@ class HibernateRunnerTest {
 
     @Test
     public void solveProblemUsingJoinFetchHql() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -101,8 +110,11 @@ class HibernateRunnerTest {
 
     @Test
     public void testNPlusOneProblem() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
-        @Cleanup var session = sessionFactory.openSession();
+        var sessionFactory = HibernateUtil.getSessionFactory();
+        var counter = StatementCounter.builder()
+                .name("testNPlusOneProblem")
+                .build();
+        @Cleanup var session = counter.openSession(sessionFactory);
         session.beginTransaction();
 
         // Воссоздание проблемы N+1
@@ -124,11 +136,16 @@ class HibernateRunnerTest {
         }
 
         session.getTransaction().commit();
+
+        // один select авторов и по select книг на каждые 10 авторов, а не на каждого
+        var report = counter.report();
+        assertEquals(1 + (authors.size() + 9) / 10, report.statements());
+        assertEquals(1, report.transactions());
     }
 
     @Test
     public void testProblem() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -178,7 +195,7 @@ class HibernateRunnerTest {
 
 //    @Test
 //    public void checkHQL() {
-//        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+//        var sessionFactory = HibernateUtil.getSessionFactory();
 //        @Cleanup var session = sessionFactory.openSession();
 //        session.beginTransaction();
 //
@@ -191,7 +208,7 @@ class HibernateRunnerTest {
 
 //    @Test
 //    public void checkInheritance() {
-//        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+//        var sessionFactory = HibernateUtil.getSessionFactory();
 //        @Cleanup var session = sessionFactory.openSession();
 //        session.beginTransaction();
 //
@@ -228,7 +245,7 @@ class HibernateRunnerTest {
 
     @Test
     public void checkH2() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -244,7 +261,7 @@ class HibernateRunnerTest {
 
     @Test
     public void testAddingStudentProfile() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -271,7 +288,7 @@ class HibernateRunnerTest {
 
     @Test
     public void createStudentAndCourse() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -295,7 +312,7 @@ class HibernateRunnerTest {
 
     @Test
     public void checkManyToMany() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -317,7 +334,7 @@ class HibernateRunnerTest {
 
     @Test
     public void checkOneToOne() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -347,7 +364,7 @@ class HibernateRunnerTest {
 
     @Test
     public void checkOrphalRemoval() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -360,7 +377,7 @@ class HibernateRunnerTest {
 
     @Test
     public void addNewUserAndCompany() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -381,7 +398,7 @@ class HibernateRunnerTest {
 
     @Test
     public void checkOneToMany() {
-        @Cleanup var sessionFactory = HibernateUtil.buildSessionFactory();
+        var sessionFactory = HibernateUtil.getSessionFactory();
         @Cleanup var session = sessionFactory.openSession();
         session.beginTransaction();
 
@@ -0,0 +1,102 @@
+package by.yungchr1sttt.hibernate.audit;
+
+import by.yungchr1sttt.hibernate.entity.AuditLog;
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class AuditTrailTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void openFactory() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void userChatChangesAreStampedAndAudited() throws InterruptedException {
+        UserChat userChat = AuditContext.callAs("alice", () -> sessionFactory.fromTransaction(session -> {
+            User user = User.builder()
+                    .username("audited@mail.ru")
+                    .build();
+            Chat chat = Chat.builder()
+                    .name("audited")
+                    .build();
+            session.persist(user);
+            session.persist(chat);
+            UserChat created = new UserChat();
+            created.setUser(user);
+            created.setChat(chat);
+            session.persist(created);
+            return created;
+        }));
+        assertNotNull(userChat.getCreatedAt());
+        assertEquals("alice", userChat.getCreatedBy());
+
+        AuditContext.runAs("bob", () -> sessionFactory.inTransaction(session ->
+                session.find(UserChat.class, userChat.getId()).setCreatedAt(Instant.EPOCH)));
+        sessionFactory.inTransaction(session -> {
+            session.find(UserChat.class, userChat.getId()).setCreatedBy("mallory");
+            session.flush();
+            session.getTransaction().setRollbackOnly();
+        });
+        sessionFactory.inTransaction(session -> session.remove(session.find(UserChat.class, userChat.getId())));
+
+        List<AuditLog> trail = awaitAuditLog(String.valueOf(userChat.getId()), 3);
+        assertEquals(List.of(AuditAction.INSERT, AuditAction.UPDATE, AuditAction.DELETE),
+                trail.stream().map(AuditLog::getAction).toList());
+        assertEquals(List.of("alice", "bob", AuditContext.SYSTEM), trail.stream().map(AuditLog::getActor).toList());
+        assertEquals("createdAt", trail.get(1).getChangedProperties());
+        assertEquals(0, HibernateUtil.getAuditMetrics(sessionFactory).orElseThrow().dropped());
+    }
+
+    @Test
+    public void fullQueueDropsInsteadOfBlocking() {
+        AuditTrail auditTrail = new AuditTrail(sessionFactory, 2, 10);
+
+        for (int i = 0; i < 3; i++) {
+            auditTrail.offer(AuditLog.builder().build());
+        }
+
+        AuditMetrics metrics = auditTrail.getMetrics();
+        assertEquals(2, metrics.enqueued());
+        assertEquals(1, metrics.dropped());
+        assertEquals(2, metrics.queued());
+    }
+
+    private static List<AuditLog> awaitAuditLog(String entityId, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        List<AuditLog> trail;
+        do {
+            Thread.sleep(50);
+            trail = sessionFactory.fromTransaction(session -> session.createSelectionQuery(
+                            "from AuditLog a where a.entityName = :entityName and a.entityId = :entityId order by a.id",
+                            AuditLog.class)
+                    .setParameter("entityName", UserChat.class.getName())
+                    .setParameter("entityId", entityId)
+                    .list());
+        } while (trail.size() < expected && System.nanoTime() < deadline);
+        assertFalse(trail.isEmpty(), "no audit events were written");
+        return trail;
+    }
+}
@@ -0,0 +1,73 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.entity.Author;
+import by.yungchr1sttt.hibernate.entity.Birthday;
+import by.yungchr1sttt.hibernate.entity.Book;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.PersonalInfo;
+import by.yungchr1sttt.hibernate.entity.Role;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.service.BulkPersister;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.hibernate.SessionFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Наполнение in-memory H2 для бенчмарков.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BenchmarkData {
+
+    static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    static String companyName(int company) {
+        return "company-" + company;
+    }
+
+    static String username(int company, int user) {
+        return "user-" + company + "-" + user + "@mail.ru";
+    }
+
+    static void seedCompaniesWithUsers(SessionFactory sessionFactory, int companies, int usersPerCompany) {
+        List<Company> graphs = new ArrayList<>(companies);
+        for (int c = 0; c < companies; c++) {
+            Company company = Company.builder()
+                    .name(companyName(c))
+                    .build();
+            for (int u = 0; u < usersPerCompany; u++) {
+                company.addUser(User.builder()
+                        .username(username(c, u))
+                        .role(u % 10 == 0 ? Role.ADMIN : Role.USER)
+                        .personalInfo(PersonalInfo.builder()
+                                .firstName("First" + u)
+                                .lastName("Last" + c)
+                                .birthDate(new Birthday(LocalDate.of(1960, 1, 1).plusDays((c * 31L + u * 17L) % 20_000)))
+                                .build())
+                        .build());
+            }
+            graphs.add(company);
+        }
+        new BulkPersister(sessionFactory, 500).persist(graphs);
+    }
+
+    static void seedAuthorsWithBooks(SessionFactory sessionFactory, int authors, int booksPerAuthor) {
+        sessionFactory.inStatelessTransaction(session -> {
+            for (int a = 0; a < authors; a++) {
+                Author author = Author.builder()
+                        .name("author-" + a)
+                        .build();
+                session.insert(author);
+                for (int b = 0; b < booksPerAuthor; b++) {
+                    session.insert(Book.builder()
+                            .title("book-" + a + "-" + b)
+                            .author(author)
+                            .build());
+                }
+            }
+        });
+    }
+}
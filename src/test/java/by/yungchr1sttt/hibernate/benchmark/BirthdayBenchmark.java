@@ -0,0 +1,114 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.convertor.BirthdayConverter;
+import by.yungchr1sttt.hibernate.dao.UserDao;
+import by.yungchr1sttt.hibernate.dto.BirthDateRange;
+import by.yungchr1sttt.hibernate.dto.UserSummary;
+import by.yungchr1sttt.hibernate.entity.Birthday;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Пользователи 18-25 лет": загрузка всех User и фильтр по getAge() против birth_date between в БД,
+ * и конвертация колонки в Birthday: прежняя Optional-цепочка через java.sql.Date против BirthdayConverter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BirthdayBenchmark {
+
+    private static final int DATES = 1024;
+
+    @Param("20")
+    private int companies;
+
+    @Param("100")
+    private int usersPerCompany;
+
+    private SessionFactory sessionFactory;
+    private final BirthdayConverter converter = new BirthdayConverter();
+    private final LocalDate[] localDates = new LocalDate[DATES];
+    private final Date[] sqlDates = new Date[DATES];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = HibernateUtil.getSessionFactory(BenchmarkData.CONFIGURATION);
+        BenchmarkData.seedCompaniesWithUsers(sessionFactory, companies, usersPerCompany);
+        for (int i = 0; i < DATES; i++) {
+            localDates[i] = LocalDate.of(1960, 1, 1).plusDays(i * 17L);
+            sqlDates[i] = Date.valueOf(localDates[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<String> ageFilterInMemory() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("from User u", User.class)
+                    .list()
+                    .stream()
+                    .filter(user -> {
+                        long age = user.getPersonalInfo().getBirthDate().getAge();
+                        return age >= 18 && age <= 25;
+                    })
+                    .map(User::getUsername)
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<UserSummary> ageRangeInDatabase() {
+        BirthDateRange range = BirthDateRange.ofAge(18, 25);
+        return HibernateUtil.fromReadOnlySession(sessionFactory,
+                session -> UserDao.getInstance().findSummariesByBirthDate(session, range));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public void hydrateOptionalChain(Blackhole blackhole) {
+        for (Date date : sqlDates) {
+            blackhole.consume(Optional.ofNullable(date)
+                    .map(Date::toLocalDate)
+                    .map(Birthday::new)
+                    .orElse(null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public void hydrateConverter(Blackhole blackhole) {
+        for (LocalDate date : localDates) {
+            blackhole.consume(converter.convertToEntityAttribute(date));
+        }
+    }
+}
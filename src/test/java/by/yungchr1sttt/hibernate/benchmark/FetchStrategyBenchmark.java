@@ -0,0 +1,148 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.entity.Author;
+import by.yungchr1sttt.hibernate.instrumentation.BudgetMode;
+import by.yungchr1sttt.hibernate.instrumentation.StatementCounter;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import jakarta.persistence.EntityGraph;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.graph.GraphSemantic;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Загрузка всех Author с их books разными способами из HibernateRunnerTest.
+ * Throughput и SampleTime дают пропускную способность и перцентили задержки,
+ * счётчик statements - число SQL на операцию, аллокации - профайлер gc (включён в профиле benchmark).
+ * Кэш второго уровня Author/Book не использует, так что каждая операция ходит в H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchStrategyBenchmark {
+
+    @Param({"10", "100"})
+    private int authors;
+
+    @Param("10")
+    private int booksPerAuthor;
+
+    private SessionFactory sessionFactory;
+    private EntityGraph<Author> withBooks;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        sessionFactory = HibernateUtil.getSessionFactory(BenchmarkData.CONFIGURATION);
+        withBooks = (EntityGraph<Author>) sessionFactory.getNamedEntityGraphs(Author.class).get("Author.withBooks");
+        BenchmarkData.seedAuthorsWithBooks(sessionFactory, authors, booksPerAuthor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public int namedEntityGraph(Statements statements) {
+        try (Session session = statements.openSession(sessionFactory)) {
+            return countBooks(session.createSelectionQuery("from Author", Author.class)
+                    .setEntityGraph(withBooks, GraphSemantic.FETCH)
+                    .list());
+        }
+    }
+
+    @Benchmark
+    public int dynamicEntityGraph(Statements statements) {
+        try (Session session = statements.openSession(sessionFactory)) {
+            EntityGraph<Author> graph = session.createEntityGraph(Author.class);
+            graph.addSubgraph("books");
+            return countBooks(session.createSelectionQuery("from Author", Author.class)
+                    .setEntityGraph(graph, GraphSemantic.FETCH)
+                    .list());
+        }
+    }
+
+    @Benchmark
+    public int batchSize(Statements statements) {
+        try (Session session = statements.openSession(sessionFactory)) {
+            // @BatchSize(size = 10) на Author.books
+            return countBooks(session.createSelectionQuery("from Author", Author.class).list());
+        }
+    }
+
+    @Benchmark
+    public int joinFetch(Statements statements) {
+        try (Session session = statements.openSession(sessionFactory)) {
+            return countBooks(session.createSelectionQuery("from Author a join fetch a.books", Author.class)
+                    .list());
+        }
+    }
+
+    @Benchmark
+    public int subselect(Statements statements) {
+        try (Session session = statements.openSession(sessionFactory)) {
+            session.setSubselectFetchingEnabled(true);
+            return countBooks(session.createSelectionQuery("from Author", Author.class).list());
+        }
+    }
+
+    private static int countBooks(List<Author> authors) {
+        int books = 0;
+        for (Author author : authors) {
+            books += author.getBooks().size();
+        }
+        return books;
+    }
+
+    /**
+     * Число SQL-запросов и сессий (операций), JMH выводит их суммы рядом с основными результатами:
+     * statements / sessions - запросов на операцию.
+     * Один счётчик на итерацию: сессии потока открываются через него последовательно.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Statements {
+
+        public long sessions;
+
+        private StatementCounter counter;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sessions = 0;
+            counter = StatementCounter.builder()
+                    .mode(BudgetMode.WARN)
+                    .nPlusOneThreshold(Integer.MAX_VALUE)
+                    .build();
+        }
+
+        public long statements() {
+            return counter.getStatements();
+        }
+
+        Session openSession(SessionFactory sessionFactory) {
+            sessions++;
+            return counter.openSession(sessionFactory);
+        }
+    }
+}
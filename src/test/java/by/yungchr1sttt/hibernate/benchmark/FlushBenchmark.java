@@ -0,0 +1,88 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flush большого persistence context, в котором меняется одна сущность.
+ * Без enhancement flush сравнивает снимки всех загруженных User, с dirty tracking - только изменённые.
+ * Сравнение: mvn -Pbenchmark test -Dbenchmark=FlushBenchmark [-DnoEnhance].
+ * Память под контекст - gc.alloc.rate.norm бенчмарка loadPersistenceContext (профайлер gc):
+ * сущности и, без enhancement, снимки их состояния.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlushBenchmark {
+
+    @Param("10")
+    private int companies;
+
+    @Param("1000")
+    private int usersPerCompany;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private List<User> users;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = HibernateUtil.getSessionFactory(BenchmarkData.CONFIGURATION);
+        BenchmarkData.seedCompaniesWithUsers(sessionFactory, companies, usersPerCompany);
+    }
+
+    @Setup(Level.Iteration)
+    public void openPersistenceContext() {
+        session = sessionFactory.openSession();
+        session.beginTransaction();
+        users = session.createSelectionQuery("from User u", User.class).list();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closePersistenceContext() {
+        session.getTransaction().rollback();
+        session.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public void flushOneDirtyEntity() {
+        User user = users.get(next++ % users.size());
+        user.getPersonalInfo().setFirstName("Renamed" + next);
+        session.flush();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public int loadPersistenceContext() {
+        try (Session context = sessionFactory.openSession()) {
+            return context.createSelectionQuery("from User u", User.class).list().size();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.id.ConcurrentPooledLoOptimizer;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Пропускная способность persist: IDENTITY (insert на каждую строку, батчинг выключен) против sequence
+ * со штатным pooled-lo и с {@link ConcurrentPooledLoOptimizer}. Несколько потоков пишут одновременно,
+ * поэтому видна и конкуренция за блок id. Одна операция - транзакция из rows вставок.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    @Param({"identity", "pooled-lo", "concurrent-pooled-lo"})
+    private String generator;
+
+    @Param("500")
+    private int rows;
+
+    private SessionFactory sessionFactory;
+    private Supplier<Object> row;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration().configure(BenchmarkData.CONFIGURATION)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:id-" + generator + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.pool.max_size", "8")
+                .setProperty("hibernate.id.optimizer.pooled.preferred",
+                        "pooled-lo".equals(generator) ? "pooled-lo" : ConcurrentPooledLoOptimizer.class.getName())
+                .addAnnotatedClass(IdentityRow.class)
+                .addAnnotatedClass(SequenceRow.class);
+        sessionFactory = configuration.buildSessionFactory();
+        row = "identity".equals(generator) ? IdentityRow::new : SequenceRow::new;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void persistRows() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < rows; i++) {
+                session.persist(row.get());
+            }
+        });
+    }
+
+    @Entity
+    @Table(name = "identity_row")
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class IdentityRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String payload = "identity";
+    }
+
+    @Entity
+    @Table(name = "sequence_row")
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class SequenceRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequence_row_gen")
+        @SequenceGenerator(name = "sequence_row_gen", sequenceName = "sequence_row_seq", allocationSize = 50)
+        private Long id;
+
+        private String payload = "sequence";
+    }
+}
@@ -0,0 +1,142 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.Language;
+import by.yungchr1sttt.hibernate.entity.Manager;
+import by.yungchr1sttt.hibernate.entity.Programmer;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Иерархия User -> Programmer/Manager в трёх стратегиях наследования: поиск по id через корень
+ * (TABLE_PER_CLASS - UNION ALL по всем таблицам, JOINED - left join подклассов), поиск подкласса,
+ * HQL по username через корень и вставка порции Programmer. Кэш второго уровня выключен,
+ * чтобы мерить SQL, а не попадания в регион.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InheritanceBenchmark {
+
+    @Param({"single_table", "joined", "table_per_class"})
+    private String strategy;
+
+    @Param("100000")
+    private int users;
+
+    @Param("100")
+    private int insertBatch;
+
+    private final AtomicLong inserted = new AtomicLong();
+
+    private SessionFactory sessionFactory;
+    private List<Long> userIds;
+    private List<Long> programmerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration().configure(BenchmarkData.CONFIGURATION)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:inheritance-" + strategy + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .setProperty("hibernate.cache.use_query_cache", "false")
+                .setProperty(HibernateUtil.USER_INHERITANCE, strategy);
+        sessionFactory = HibernateUtil.buildSessionFactory(configuration);
+        seed();
+        userIds = sessionFactory.fromSession(session ->
+                session.createSelectionQuery("select u.id from User u", Long.class).list());
+        programmerIds = sessionFactory.fromSession(session ->
+                session.createSelectionQuery("select p.id from Programmer p", Long.class).list());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public User findUserPolymorphic() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.find(User.class, random(userIds));
+        }
+    }
+
+    @Benchmark
+    public Programmer findProgrammer() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.find(Programmer.class, random(programmerIds));
+        }
+    }
+
+    @Benchmark
+    public User userByUsernamePolymorphic() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("from User u where u.username = :username", User.class)
+                    .setParameter("username", username(ThreadLocalRandom.current().nextInt(users)))
+                    .getSingleResult();
+        }
+    }
+
+    @Benchmark
+    public void insertProgrammers() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < insertBatch; i++) {
+                session.persist(Programmer.builder()
+                        .username("inserted-" + inserted.incrementAndGet() + "@mail.ru")
+                        .language(Language.KOTLIN)
+                        .build());
+            }
+        });
+    }
+
+    private void seed() {
+        sessionFactory.inStatelessTransaction(session -> {
+            Company company = Company.builder()
+                    .name(BenchmarkData.companyName(0))
+                    .build();
+            session.insert(company);
+            // треть - обычные User, треть Programmer, треть Manager
+            for (int i = 0; i < users; i++) {
+                User user = switch (i % 3) {
+                    case 0 -> User.builder().username(username(i)).company(company).build();
+                    case 1 -> Programmer.builder().username(username(i)).company(company)
+                            .language(Language.JAVA).build();
+                    default -> Manager.builder().username(username(i)).company(company)
+                            .project("project-" + i % 50).build();
+                };
+                session.insert(user);
+            }
+        });
+    }
+
+    private static String username(int user) {
+        return BenchmarkData.username(0, user);
+    }
+
+    private static Long random(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
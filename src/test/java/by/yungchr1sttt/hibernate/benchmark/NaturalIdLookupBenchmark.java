@@ -0,0 +1,98 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.dao.CompanyDao;
+import by.yungchr1sttt.hibernate.dao.UserDao;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по username / company.name: natural id (+ natural-id и entity кэш) против HQL.
+ * Каждая операция - отдельная сессия, как отдельный запрос к API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NaturalIdLookupBenchmark {
+
+    @Param("100")
+    private int companies;
+
+    @Param("100")
+    private int usersPerCompany;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = HibernateUtil.getSessionFactory(BenchmarkData.CONFIGURATION);
+        BenchmarkData.seedCompaniesWithUsers(sessionFactory, companies, usersPerCompany);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public User userByNaturalId() {
+        try (Session session = sessionFactory.openSession()) {
+            return UserDao.getInstance().findByUsername(session, randomUsername()).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public User userByHql() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("from User u where u.username = :username", User.class)
+                    .setParameter("username", randomUsername())
+                    .getSingleResult();
+        }
+    }
+
+    @Benchmark
+    public Company companyByNaturalId() {
+        try (Session session = sessionFactory.openSession()) {
+            return CompanyDao.getInstance().findByName(session, randomCompanyName()).orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public Company companyByHql() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("from Company c where c.name = :name", Company.class)
+                    .setParameter("name", randomCompanyName())
+                    .getSingleResult();
+        }
+    }
+
+    private String randomUsername() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return BenchmarkData.username(random.nextInt(companies), random.nextInt(usersPerCompany));
+    }
+
+    private String randomCompanyName() {
+        return BenchmarkData.companyName(ThreadLocalRandom.current().nextInt(companies));
+    }
+}
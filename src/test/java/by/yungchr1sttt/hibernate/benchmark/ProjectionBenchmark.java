@@ -0,0 +1,88 @@
+package by.yungchr1sttt.hibernate.benchmark;
+
+import by.yungchr1sttt.hibernate.dao.UserDao;
+import by.yungchr1sttt.hibernate.dto.UserSummary;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список пользователей компании: управляемые сущности User + Company против record-проекции
+ * в read-only StatelessSession. Главное - gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param("20")
+    private int companies;
+
+    @Param("500")
+    private int usersPerCompany;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = HibernateUtil.getSessionFactory(BenchmarkData.CONFIGURATION);
+        BenchmarkData.seedCompaniesWithUsers(sessionFactory, companies, usersPerCompany);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public List<String> managedEntities() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("""
+                            select u from User u
+                            join fetch u.company c
+                            where c.name = :companyName
+                            order by u.username
+                            """, User.class)
+                    .setParameter("companyName", randomCompanyName())
+                    .list()
+                    .stream()
+                    .map(user -> user.getUsername() + " " + user.getCompany().getName())
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    public List<String> readOnlyProjection() {
+        String companyName = randomCompanyName();
+        return HibernateUtil.fromReadOnlySession(sessionFactory,
+                        session -> UserDao.getInstance().findSummariesByCompany(session, companyName))
+                .stream()
+                .map(summary -> summary.username() + " " + summary.companyName())
+                .toList();
+    }
+
+    private String randomCompanyName() {
+        return BenchmarkData.companyName(ThreadLocalRandom.current().nextInt(companies));
+    }
+}
@@ -0,0 +1,72 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.dto.BirthDateRange;
+import by.yungchr1sttt.hibernate.dto.UserSummary;
+import by.yungchr1sttt.hibernate.entity.Birthday;
+import by.yungchr1sttt.hibernate.entity.PersonalInfo;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BirthDateRangeQueryTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inTransaction(session -> {
+            persist(session, "turns-18-tomorrow", TODAY.minusYears(18).plusDays(1));
+            persist(session, "turns-18-today", TODAY.minusYears(18));
+            persist(session, "turns-26-tomorrow", TODAY.minusYears(26).plusDays(1));
+            persist(session, "turns-26-today", TODAY.minusYears(26));
+        });
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void ageBracketIsTranslatedToBirthDateRange() {
+        BirthDateRange range = BirthDateRange.ofAge(18, 25, TODAY);
+
+        List<UserSummary> users = HibernateUtil.fromReadOnlySession(sessionFactory,
+                session -> UserDao.getInstance().findSummariesByBirthDate(session, range));
+
+        assertEquals(List.of("turns-26-tomorrow@age.by", "turns-18-today@age.by"),
+                users.stream().map(UserSummary::username).toList());
+        long count = HibernateUtil.fromReadOnlySession(sessionFactory,
+                session -> UserDao.getInstance().countByBirthDate(session, range));
+        assertEquals(2, count);
+        users.forEach(user -> {
+            Birthday birthday = sessionFactory.fromTransaction(session -> session.find(User.class, user.id()))
+                    .getPersonalInfo().getBirthDate();
+            long age = birthday.getAge(TODAY);
+            assertTrue(age >= 18 && age <= 25, user.username() + " is " + age);
+        });
+    }
+
+    private static void persist(Session session, String name, LocalDate birthDate) {
+        session.persist(User.builder()
+                .username(name + "@age.by")
+                .personalInfo(PersonalInfo.builder()
+                        .birthDate(new Birthday(birthDate))
+                        .build())
+                .build());
+    }
+}
@@ -0,0 +1,148 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.Course;
+import by.yungchr1sttt.hibernate.entity.Profile;
+import by.yungchr1sttt.hibernate.entity.Student;
+import by.yungchr1sttt.hibernate.entity.StudentProfile;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkRemovalTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+    private static final int USERS = 20;
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void createFactory() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void removeUsersDeletesTenantWithoutLoadingIt() {
+        Integer companyId = sessionFactory.fromTransaction(session -> {
+            Company company = Company.builder().name("Offboarding").build();
+            session.persist(company);
+            return company.getId();
+        });
+        Long chatId = sessionFactory.fromTransaction(session -> {
+            Chat chat = Chat.builder().name("offboarding").build();
+            session.persist(chat);
+            return chat.getId();
+        });
+        List<Long> userIds = new ArrayList<>();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < USERS; i++) {
+                User user = CompanyDao.getInstance().addUser(session, companyId, User.builder()
+                        .username("offboarding-" + i + "@mail.ru")
+                        .build());
+                Profile.builder().language("Ru").build().setUser(user);
+                session.persist(user.getProfile());
+                ChatDao.getInstance().addMember(session, chatId, user.getId());
+                userIds.add(user.getId());
+            }
+        });
+        // второй уровень прогрет - после удаления из него не должны прочитаться удалённые пользователи
+        sessionFactory.inSession(session -> session.find(User.class, userIds.get(0)));
+
+        Statistics statistics = sessionFactory.getStatistics();
+        sessionFactory.inTransaction(session -> {
+            Company company = session.find(Company.class, companyId);
+            company.getUsers().size();
+            Chat chat = session.find(Chat.class, chatId);
+            long loadsBefore = statistics.getEntityLoadCount();
+
+            assertEquals(USERS, CompanyDao.getInstance().removeUsers(session, companyId));
+
+            assertEquals(loadsBefore, statistics.getEntityLoadCount());
+            assertFalse(session.contains(company));
+            assertFalse(session.contains(chat));
+            assertTrue(session.find(Company.class, companyId).getUsers().isEmpty());
+        });
+
+        sessionFactory.inSession(session -> {
+            assertNull(session.find(User.class, userIds.get(0)));
+            assertEquals(0, CompanyDao.getInstance().countMembers(session, companyId));
+            assertEquals(0, ChatDao.getInstance().countMembers(session, chatId));
+            assertEquals(0L, session.createSelectionQuery(
+                            "select count(p) from Profile p where p.user.id in :ids", Long.class)
+                    .setParameter("ids", userIds)
+                    .getSingleResult());
+        });
+    }
+
+    @Test
+    public void removeAllMembersPurgesChat() {
+        Long chatId = sessionFactory.fromTransaction(session -> {
+            Chat chat = Chat.builder().name("purge").build();
+            session.persist(chat);
+            Company company = Company.builder().name("Purge").build();
+            session.persist(company);
+            for (int i = 0; i < 3; i++) {
+                User user = User.builder().username("purge-" + i + "@mail.ru").build();
+                company.addUser(user);
+                session.persist(user);
+                session.persist(UserChat.builder().user(user).chat(chat).build());
+            }
+            return chat.getId();
+        });
+
+        sessionFactory.inTransaction(session -> {
+            List<UserChat> loaded = session.createSelectionQuery(
+                            "from UserChat uc where uc.chat.id = :chatId", UserChat.class)
+                    .setParameter("chatId", chatId)
+                    .list();
+
+            assertEquals(3, ChatDao.getInstance().removeAllMembers(session, chatId));
+
+            loaded.forEach(userChat -> assertFalse(session.contains(userChat)));
+        });
+        sessionFactory.inSession(session -> assertTrue(session.find(Chat.class, chatId).getUserChats().isEmpty()));
+    }
+
+    @Test
+    public void removeStudentsDeletesProfilesFirst() {
+        Integer courseId = sessionFactory.fromTransaction(session -> {
+            Course course = Course.builder().name("Removal course").build();
+            for (int i = 0; i < 3; i++) {
+                Student student = Student.builder().name("removal-" + i).build();
+                course.addStudent(student);
+                student.addStudentProfile(StudentProfile.builder().grade("A").student(student).build());
+            }
+            session.persist(course);
+            return course.getId();
+        });
+
+        sessionFactory.inTransaction(session -> {
+            Course course = session.find(Course.class, courseId);
+            course.getStudents().size();
+
+            assertEquals(3, CourseDao.getInstance().removeStudents(session, courseId));
+
+            assertFalse(session.contains(course));
+            assertTrue(session.find(Course.class, courseId).getStudents().isEmpty());
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.dto.ChatMember;
+import by.yungchr1sttt.hibernate.dto.UserSummary;
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import by.yungchr1sttt.hibernate.pagination.KeysetOrder;
+import by.yungchr1sttt.hibernate.pagination.KeysetPage;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetPaginationTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+    private static final int MEMBERS = 25;
+
+    private static SessionFactory sessionFactory;
+    private static Integer companyId;
+    private static Long chatId;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inTransaction(session -> {
+            Company company = Company.builder()
+                    .name("Keyset")
+                    .build();
+            Chat chat = Chat.builder()
+                    .name("keyset")
+                    .build();
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < MEMBERS; i++) {
+                User user = User.builder()
+                        .username("keyset-" + i + "@mail.ru")
+                        .build();
+                company.addUser(user);
+                users.add(user);
+            }
+            session.persist(company);
+            session.persist(chat);
+
+            Instant joined = Instant.parse("2024-01-01T00:00:00Z");
+            for (int i = 0; i < MEMBERS; i++) {
+                UserChat userChat = new UserChat();
+                userChat.setUser(users.get(i));
+                userChat.setChat(chat);
+                // по три участника на одну секунду - порядок внутри держится на id
+                userChat.setCreatedAt(joined.plusSeconds(i / 3));
+                session.persist(userChat);
+            }
+            companyId = company.getId();
+            chatId = chat.getId();
+        });
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void usersOfCompanyArePagedById() {
+        List<UserSummary> all = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            KeysetPage<UserSummary> page = HibernateUtil.fromReadOnlySession(sessionFactory,
+                    session -> UserDao.getInstance().findPageByCompany(session, companyId, after, 10));
+            all.addAll(page.items());
+            pageSizes.add(page.items().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(10, 10, 5), pageSizes);
+        assertEquals(MEMBERS, all.stream().map(UserSummary::id).distinct().count());
+        assertTrue(all.stream().allMatch(user -> user.companyName().equals("Keyset")));
+    }
+
+    @Test
+    public void chatMembersArePagedByJoinTime() {
+        List<ChatMember> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            KeysetPage<ChatMember> page = HibernateUtil.fromReadOnlySession(sessionFactory,
+                    session -> ChatDao.getInstance().findMembers(session, chatId, KeysetOrder.CREATED_AT, after, 4));
+            all.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(MEMBERS, all.size());
+        assertEquals(MEMBERS, all.stream().map(ChatMember::userChatId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            assertFalse(all.get(i).joinedAt().isBefore(all.get(i - 1).joinedAt()));
+        }
+    }
+
+    @Test
+    public void cursorOfAnotherOrderIsRejected() {
+        KeysetPage<ChatMember> byId = HibernateUtil.fromReadOnlySession(sessionFactory,
+                session -> ChatDao.getInstance().findMembers(session, chatId, KeysetOrder.ID, null, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> HibernateUtil.fromReadOnlySession(sessionFactory,
+                session -> ChatDao.getInstance().findMembers(session, chatId, KeysetOrder.CREATED_AT,
+                        byId.nextCursor(), 5)));
+    }
+}
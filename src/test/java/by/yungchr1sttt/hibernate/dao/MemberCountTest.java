@@ -0,0 +1,201 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.Course;
+import by.yungchr1sttt.hibernate.entity.Student;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MemberCountTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+    private static final int CONCURRENT_MEMBERS = 16;
+
+    private static SessionFactory sessionFactory;
+    private static Integer companyId;
+    private static Long chatId;
+    private static List<Long> userIds;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inTransaction(session -> {
+            Company company = Company.builder()
+                    .name("Counters")
+                    .build();
+            Chat chat = Chat.builder()
+                    .name("counters")
+                    .build();
+            session.persist(company);
+            session.persist(chat);
+            companyId = company.getId();
+            chatId = chat.getId();
+        });
+        userIds = new ArrayList<>();
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < CONCURRENT_MEMBERS; i++) {
+                User user = CompanyDao.getInstance().addUser(session, companyId, User.builder()
+                        .username("counter-" + i + "@mail.ru")
+                        .build());
+                userIds.add(user.getId());
+            }
+        });
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void joinsDoNotInitializeCollectionsAndKeepCountUnderConcurrency() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> joins = new ArrayList<>();
+            for (Long userId : userIds) {
+                joins.add(executor.submit(() -> sessionFactory.inTransaction(session -> {
+                    Chat chat = session.find(Chat.class, chatId);
+                    ChatDao.getInstance().addMember(session, chatId, userId);
+                    assertFalse(Hibernate.isInitialized(chat.getUserChats()));
+                })));
+            }
+            for (Future<?> join : joins) {
+                join.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        sessionFactory.inSession(session -> {
+            assertEquals(CONCURRENT_MEMBERS, ChatDao.getInstance().countMembers(session, chatId));
+            assertEquals(CONCURRENT_MEMBERS, CompanyDao.getInstance().countMembers(session, companyId));
+            assertEquals(CONCURRENT_MEMBERS, session.find(Chat.class, chatId).getMemberCount());
+        });
+
+        sessionFactory.inTransaction(session -> {
+            UserChat userChat = session.createSelectionQuery(
+                            "from UserChat uc where uc.chat.id = :chatId order by uc.id", UserChat.class)
+                    .setParameter("chatId", chatId)
+                    .setMaxResults(1)
+                    .getSingleResult();
+            ChatDao.getInstance().removeMember(session, userChat);
+        });
+        sessionFactory.inSession(session ->
+                assertEquals(CONCURRENT_MEMBERS - 1, ChatDao.getInstance().countMembers(session, chatId)));
+    }
+
+    @Test
+    public void entityPathsKeepCount() {
+        Integer[] courseIds = sessionFactory.fromTransaction(session -> {
+            Course course = Course.builder()
+                    .name("Counters course")
+                    .build();
+            course.addStudent(Student.builder().name("first").build());
+            course.addStudent(Student.builder().name("second").build());
+            Course other = Course.builder()
+                    .name("Counters other course")
+                    .build();
+            session.persist(course);
+            session.persist(other);
+            return new Integer[]{course.getId(), other.getId()};
+        });
+        CourseDao courseDao = CourseDao.getInstance();
+        sessionFactory.inTransaction(session -> {
+            assertEquals(2, courseDao.countMembers(session, courseIds[0]));
+            courseDao.addStudent(session, courseIds[0], Student.builder().name("third").build());
+            // запрос к courses не вызывает auto flush вставки в students - счётчик меняется при flush
+            session.flush();
+            assertEquals(3, courseDao.countMembers(session, courseIds[0]));
+        });
+        sessionFactory.inTransaction(session -> {
+            List<Student> students = session.createSelectionQuery(
+                            "from Student s where s.course.id = :courseId order by s.id", Student.class)
+                    .setParameter("courseId", courseIds[0])
+                    .list();
+            students.getFirst().setCourse(session.getReference(Course.class, courseIds[1]));
+            session.remove(students.getLast());
+        });
+        sessionFactory.inTransaction(session -> {
+            assertEquals(1, courseDao.countMembers(session, courseIds[0]));
+            assertEquals(1, courseDao.countMembers(session, courseIds[1]));
+        });
+
+        Long[] ids = sessionFactory.fromTransaction(session -> {
+            // как в LoadGenerator.createCompany: пользователь сохраняется каскадом от компании
+            Company company = Company.builder()
+                    .name("Counters entities")
+                    .build();
+            User user = User.builder()
+                    .username("counter-entity@mail.ru")
+                    .build();
+            company.addUser(user);
+            session.persist(company);
+            Chat chat = Chat.builder()
+                    .name("counters entities")
+                    .build();
+            session.persist(chat);
+            return new Long[]{company.getId().longValue(), chat.getId(), user.getId()};
+        });
+        sessionFactory.inTransaction(session -> {
+            UserChat userChat = new UserChat();
+            userChat.setChat(session.find(Chat.class, ids[1]));
+            userChat.setUser(session.find(User.class, ids[2]));
+            session.persist(userChat);
+        });
+        sessionFactory.inTransaction(session -> {
+            assertEquals(1, CompanyDao.getInstance().countMembers(session, ids[0].intValue()));
+            assertEquals(1, ChatDao.getInstance().countMembers(session, ids[1]));
+            assertEquals(1, session.find(Chat.class, ids[1]).getMemberCount());
+
+            Integer beforeRecount = courseDao.countMembers(session, courseIds[0]);
+            courseDao.recountMembers(session);
+            assertEquals(beforeRecount, courseDao.countMembers(session, courseIds[0]));
+        });
+    }
+
+    @Test
+    public void joinKeepsOtherChatsInSecondLevelCache() {
+        Long[] chatIds = sessionFactory.fromTransaction(session -> {
+            Chat joined = Chat.builder().name("cached joined").build();
+            Chat untouched = Chat.builder().name("cached untouched").build();
+            session.persist(joined);
+            session.persist(untouched);
+            return new Long[]{joined.getId(), untouched.getId()};
+        });
+        Long userId = userIds.getFirst();
+        sessionFactory.inSession(session -> {
+            session.find(Chat.class, chatIds[0]);
+            session.find(Chat.class, chatIds[1]);
+        });
+        CacheRegionStatistics region = sessionFactory.getStatistics().getDomainDataRegionStatistics("reference.chat");
+
+        sessionFactory.inTransaction(session -> ChatDao.getInstance().addMember(session, chatIds[0], userId));
+
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        sessionFactory.inSession(session -> session.find(Chat.class, chatIds[1]));
+        assertEquals(hits + 1, region.getHitCount());
+        assertEquals(misses, region.getMissCount());
+
+        // запись вступившего чата заблокирована до коммита и не отдаёт старый счётчик
+        sessionFactory.inSession(session -> assertEquals(1, session.find(Chat.class, chatIds[0]).getMemberCount()));
+        assertEquals(misses + 1, region.getMissCount());
+    }
+}
@@ -0,0 +1,79 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NaturalIdCacheTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inTransaction(session -> {
+            Company company = Company.builder()
+                    .name("Natural")
+                    .build();
+            session.persist(company);
+            session.persist(Chat.builder()
+                    .name("natural")
+                    .build());
+            session.persist(User.builder()
+                    .username("natural@mail.ru")
+                    .company(company)
+                    .build());
+        });
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void companyByNameIsServedFromCaches() {
+        assertSecondLookupRunsNoSql(session -> CompanyDao.getInstance().findByName(session, "Natural"));
+    }
+
+    @Test
+    public void chatByNameIsServedFromCaches() {
+        assertSecondLookupRunsNoSql(session -> ChatDao.getInstance().findByName(session, "natural"));
+    }
+
+    @Test
+    public void userByUsernameIsServedFromCaches() {
+        assertSecondLookupRunsNoSql(session -> UserDao.getInstance().findByUsername(session, "natural@mail.ru"));
+    }
+
+    private static void assertSecondLookupRunsNoSql(Function<Session, Optional<?>> lookup) {
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        long coldStatements = statistics.getPrepareStatementCount();
+        // первый поиск идёт в БД и заполняет natural-id кэш и кэш сущности
+        assertTrue(sessionFactory.fromSession(lookup).isPresent());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements > coldStatements);
+        long naturalIdHits = statistics.getNaturalIdCacheHitCount();
+
+        assertTrue(sessionFactory.fromSession(lookup).isPresent());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(naturalIdHits + 1, statistics.getNaturalIdCacheHitCount());
+    }
+}
@@ -0,0 +1,79 @@
+package by.yungchr1sttt.hibernate.dao;
+
+import by.yungchr1sttt.hibernate.dto.AuthorBookRow;
+import by.yungchr1sttt.hibernate.dto.UserSummary;
+import by.yungchr1sttt.hibernate.entity.Author;
+import by.yungchr1sttt.hibernate.entity.Book;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import lombok.Cleanup;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProjectionDaoTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inTransaction(session -> {
+            Company company = Company.builder()
+                    .name("Projection")
+                    .build();
+            company.addUser(User.builder().username("bob@projection.by").build());
+            company.addUser(User.builder().username("alice@projection.by").build());
+            session.persist(company);
+            session.persist(User.builder().username("nobody@projection.by").build());
+
+            Author author = Author.builder()
+                    .name("Tolstoy")
+                    .build();
+            session.persist(author);
+            session.persist(Book.builder().title("War and Peace").author(author).build());
+            session.persist(Book.builder().title("Anna Karenina").author(author).build());
+        });
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void userSummariesSkipPersistenceContext() {
+        @Cleanup var session = sessionFactory.openSession();
+
+        List<UserSummary> summaries = UserDao.getInstance().findSummariesByCompany(session, "Projection");
+
+        assertEquals(List.of("alice@projection.by", "bob@projection.by"),
+                summaries.stream().map(UserSummary::username).toList());
+        assertEquals("Projection", summaries.get(0).companyName());
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    public void readOnlySessionReturnsRecords() {
+        List<AuthorBookRow> rows = HibernateUtil.fromReadOnlySession(sessionFactory,
+                AuthorDao.getInstance()::findAuthorBookRows);
+        List<UserSummary> users = HibernateUtil.fromReadOnlySession(sessionFactory,
+                UserDao.getInstance()::findSummaries);
+
+        assertEquals(List.of("Anna Karenina", "War and Peace"),
+                rows.stream().filter(row -> row.authorName().equals("Tolstoy")).map(AuthorBookRow::bookTitle).toList());
+        assertNull(users.stream()
+                .filter(user -> user.username().equals("nobody@projection.by"))
+                .findFirst().orElseThrow()
+                .companyName());
+    }
+}
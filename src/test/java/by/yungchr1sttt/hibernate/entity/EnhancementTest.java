@@ -0,0 +1,75 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import lombok.Cleanup;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Проверки сборки с enhancement (профиль enhance); при -DnoEnhance пропускаются.
+ */
+class EnhancementTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    @BeforeEach
+    void requireEnhancedEntities() {
+        assumeTrue(SelfDirtinessTracker.class.isAssignableFrom(User.class), "entities are not enhanced");
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void inverseOneToOneIsLoadedOnAccess() {
+        var sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        Long id = sessionFactory.fromTransaction(session -> {
+            User user = User.builder()
+                    .username("enhanced@mail.ru")
+                    .build();
+            session.persist(user);
+            Profile profile = Profile.builder()
+                    .street("Lenina 1")
+                    .build();
+            profile.setUser(user);
+            session.persist(profile);
+            return user.getId();
+        });
+        sessionFactory.getCache().evictAllRegions();
+
+        @Cleanup var session = sessionFactory.openSession();
+        User user = session.find(User.class, id);
+
+        assertFalse(Hibernate.isPropertyInitialized(user, "profile"));
+        assertTrue(user.getProfile().getStreet().startsWith("Lenina"));
+    }
+
+    @Test
+    public void changesAreTrackedInline() {
+        var sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        Long id = sessionFactory.fromTransaction(session -> {
+            User user = User.builder()
+                    .username("tracked@mail.ru")
+                    .role(Role.USER)
+                    .build();
+            session.persist(user);
+            return user.getId();
+        });
+
+        @Cleanup var session = sessionFactory.openSession();
+        User user = session.find(User.class, id);
+        user.setRole(Role.ADMIN);
+
+        assertArrayEquals(new String[]{"role"}, ((SelfDirtinessTracker) user).$$_hibernate_getDirtyAttributes());
+    }
+}
@@ -0,0 +1,228 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import by.yungchr1sttt.hibernate.convertor.BirthdayConverter;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Selectable;
+import org.hibernate.mapping.Table;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Обход связей с обратной стороны не должен превращаться в полный просмотр таблицы:
+ * SQL, который Hibernate реально отправляет, прогоняется через EXPLAIN на заполненной базе.
+ * H2 сам индексирует внешние ключи, PostgreSQL - нет, поэтому индексы проверяются ещё и по метаданным.
+ */
+@Slf4j
+class ForeignKeyIndexTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+    private static final int COMPANIES = 100;
+    private static final int USERS_PER_COMPANY = 50;
+    private static final int CHATS = 100;
+    private static final int CHATS_PER_USER = 2;
+    private static final int AUTHORS = 500;
+    private static final int BOOKS_PER_AUTHOR = 10;
+    private static final int COURSES = 50;
+    private static final int STUDENTS_PER_COURSE = 100;
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seed() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inStatelessTransaction(session -> {
+            List<Chat> chats = new ArrayList<>(CHATS);
+            for (int c = 0; c < CHATS; c++) {
+                Chat chat = Chat.builder()
+                        .name("plan-chat-" + c)
+                        .build();
+                session.insert(chat);
+                chats.add(chat);
+            }
+            for (int c = 0; c < COMPANIES; c++) {
+                Company company = Company.builder()
+                        .name("plan-company-" + c)
+                        .build();
+                session.insert(company);
+                for (int u = 0; u < USERS_PER_COMPANY; u++) {
+                    User user = User.builder()
+                            .username("plan-" + c + "-" + u + "@mail.ru")
+                            .company(company)
+                            .build();
+                    session.insert(user);
+                    for (int m = 0; m < CHATS_PER_USER; m++) {
+                        session.insert(UserChat.builder()
+                                .user(user)
+                                .chat(chats.get((c * USERS_PER_COMPANY + u + m * 37) % CHATS))
+                                .build());
+                    }
+                }
+            }
+            for (int a = 0; a < AUTHORS; a++) {
+                Author author = Author.builder()
+                        .name("plan-author-" + a)
+                        .build();
+                session.insert(author);
+                for (int b = 0; b < BOOKS_PER_AUTHOR; b++) {
+                    session.insert(Book.builder()
+                            .title("plan-book-" + a + "-" + b)
+                            .author(author)
+                            .build());
+                }
+            }
+            for (int c = 0; c < COURSES; c++) {
+                Course course = Course.builder()
+                        .name("plan-course-" + c)
+                        .build();
+                session.insert(course);
+                for (int s = 0; s < STUDENTS_PER_COURSE; s++) {
+                    Student student = Student.builder()
+                            .name("plan-student-" + c + "-" + s)
+                            .course(course)
+                            .build();
+                    session.insert(student);
+                    session.insert(StudentProfile.builder()
+                            .grade("A")
+                            .student(student)
+                            .build());
+                }
+            }
+            // статистика для оптимизатора - иначе план строится как для пустых таблиц
+            session.createNativeMutationQuery("analyze").executeUpdate();
+        });
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void everyForeignKeyIsTheLeadingPartOfAnIndex() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .configure(CONFIGURATION)
+                .build();
+        try {
+            Metadata metadata = new MetadataSources(registry).getMetadataBuilder()
+                    .applyAttributeConverter(new BirthdayConverter())
+                    .build();
+            List<String> unindexed = new ArrayList<>();
+            for (Table table : metadata.collectTableMappings()) {
+                for (ForeignKey foreignKey : table.getForeignKeyCollection()) {
+                    if (!isIndexed(table, foreignKey)) {
+                        unindexed.add(table.getName() + foreignKey.getColumns());
+                    }
+                }
+            }
+            assertEquals(List.of(), unindexed);
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    @Test
+    public void companyUsersAreLoadedByIndex() {
+        assertNoFullScans(session -> session.find(Company.class, 1).getUsers().size());
+    }
+
+    @Test
+    public void userAndChatMembershipsAreLoadedByIndex() {
+        assertNoFullScans(session -> session.find(User.class, 1L).getUserChats().size());
+        assertNoFullScans(session -> session.find(Chat.class, 1L).getUserChats().size());
+    }
+
+    @Test
+    public void authorBooksAreLoadedByIndex() {
+        assertNoFullScans(session -> session.find(Author.class, 1L).getBooks().size());
+    }
+
+    @Test
+    public void courseStudentsAndProfilesAreLoadedByIndex() {
+        assertNoFullScans(session -> session.find(Course.class, 1).getStudents().size());
+        assertNoFullScans(session -> session.find(Student.class, 1).getStudentProfile());
+    }
+
+    @Test
+    public void unindexedPredicateIsReportedAsScan() {
+        // проверка самого детектора: по title индекса нет
+        String plan = sessionFactory.fromSession(session ->
+                explain(session, "select * from books where title = ?", "plan-book-1-1"));
+        assertTrue(isFullScan(plan), plan);
+    }
+
+    private static void assertNoFullScans(Consumer<Session> traversal) {
+        List<String> statements = new ArrayList<>();
+        sessionFactory.getCache().evictAllRegions();
+        UnaryOperator<String> capture = sql -> {
+            statements.add(sql);
+            return sql;
+        };
+        try (Session session = sessionFactory.withOptions().statementInspector(capture).openSession()) {
+            traversal.accept(session);
+            assertFalse(statements.isEmpty(), "Traversal did not reach the database");
+            for (String sql : statements) {
+                String plan = explain(session, sql, 1);
+                log.info("Plan for {}\n{}", sql, plan);
+                assertFalse(isFullScan(plan), () -> "Full scan in plan:\n" + plan);
+            }
+        }
+    }
+
+    private static String explain(Session session, String sql, Object parameter) {
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, parameter);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static boolean isIndexed(Table table, ForeignKey foreignKey) {
+        List<? extends Selectable> columns = foreignKey.getColumns();
+        // unique-колонка (join column у @OneToOne) индексируется ограничением
+        if (columns.size() == 1 && foreignKey.getColumn(0).isUnique()) {
+            return true;
+        }
+        return startsWith(table.getPrimaryKey() == null ? List.of() : table.getPrimaryKey().getColumns(), columns)
+               || table.getIndexes().values().stream().anyMatch(index -> startsWith(index.getSelectables(), columns))
+               || table.getUniqueKeys().values().stream().anyMatch(key -> startsWith(key.getColumns(), columns));
+    }
+
+    private static boolean startsWith(List<? extends Selectable> indexColumns, List<? extends Selectable> columns) {
+        return indexColumns.size() >= columns.size() && indexColumns.subList(0, columns.size()).equals(columns);
+    }
+
+    // H2 помечает полный просмотр как tableScan, PostgreSQL - как Seq Scan
+    private static boolean isFullScan(String plan) {
+        return plan.contains("tableScan") || plan.contains("Seq Scan");
+    }
+}
@@ -0,0 +1,68 @@
+package by.yungchr1sttt.hibernate.entity;
+
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.JoinedSubclassEntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.hibernate.persister.entity.UnionSubclassEntityPersister;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class UserInheritanceTest {
+
+    @Test
+    public void singleTableIsDefault() {
+        checkHierarchy(null, SingleTableEntityPersister.class);
+    }
+
+    @Test
+    public void joinedIsSelectedByConfiguration() {
+        checkHierarchy("joined", JoinedSubclassEntityPersister.class);
+    }
+
+    @Test
+    public void tablePerClassIsSelectedByConfiguration() {
+        checkHierarchy("table_per_class", UnionSubclassEntityPersister.class);
+    }
+
+    private static void checkHierarchy(String strategy, Class<? extends EntityPersister> persisterType) {
+        // своя база на стратегию: create-drop не должен трогать схему общей тестовой фабрики
+        Configuration configuration = new Configuration().configure("hibernate-test.cfg.xml")
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:inheritance-" + strategy + ";DB_CLOSE_DELAY=-1");
+        if (strategy != null) {
+            configuration.setProperty(HibernateUtil.USER_INHERITANCE, strategy);
+        }
+        try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory(configuration)) {
+            assertInstanceOf(persisterType, sessionFactory.unwrap(SessionFactoryImplementor.class)
+                    .getMappingMetamodel()
+                    .getEntityDescriptor(User.class));
+
+            Long programmerId = sessionFactory.fromTransaction(session -> {
+                Company company = Company.builder().name("Yandex").build();
+                session.persist(company);
+                session.persist(User.builder().username("user@gmail.com").company(company).build());
+                session.persist(Manager.builder().username("petr@gmail.com").company(company)
+                        .project("Java Enterprise").build());
+                Programmer programmer = Programmer.builder().username("ivan@gmail.com").company(company)
+                        .language(Language.JAVA).build();
+                session.persist(programmer);
+                return programmer.getId();
+            });
+
+            sessionFactory.getCache().evictAllRegions();
+            sessionFactory.inSession(session -> {
+                Programmer programmer = assertInstanceOf(Programmer.class, session.find(User.class, programmerId));
+                assertEquals(Language.JAVA, programmer.getLanguage());
+                assertEquals(3, session.createSelectionQuery("from User", User.class).list().size());
+                assertEquals("Java Enterprise", session.createSelectionQuery("from Manager", Manager.class)
+                        .getSingleResult()
+                        .getProject());
+            });
+        }
+    }
+}
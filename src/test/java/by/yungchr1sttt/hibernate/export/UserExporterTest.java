@@ -0,0 +1,121 @@
+package by.yungchr1sttt.hibernate.export;
+
+import by.yungchr1sttt.hibernate.entity.Birthday;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.PersonalInfo;
+import by.yungchr1sttt.hibernate.entity.Role;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void exportsCsvAndNdjson() throws IOException {
+        try (SessionFactory sessionFactory = sessionFactory("formats")) {
+            Long[] ids = sessionFactory.fromTransaction(session -> {
+                Company company = Company.builder().name("Acme, Inc").build();
+                session.persist(company);
+                User full = User.builder()
+                        .username("full@mail.ru")
+                        .personalInfo(PersonalInfo.builder()
+                                .firstName("Ivan")
+                                .lastName("Smith, \"Jr\"")
+                                .birthDate(new Birthday(LocalDate.of(1990, 1, 8)))
+                                .build())
+                        .role(Role.ADMIN)
+                        .company(company)
+                        .build();
+                User empty = User.builder()
+                        .username("empty@mail.ru")
+                        .build();
+                session.persist(full);
+                session.persist(empty);
+                return new Long[]{full.getId(), empty.getId()};
+            });
+            UserExporter exporter = new UserExporter(sessionFactory, 1);
+
+            Path csv = directory.resolve("users.csv");
+            ExportResult result = exporter.export(csv, ExportFormat.CSV);
+
+            List<String> lines = Files.readAllLines(csv);
+            assertEquals(2, result.rows());
+            assertEquals(Files.size(csv), result.bytes());
+            assertEquals("id,username,first_name,last_name,birth_date,role,company", lines.getFirst());
+            assertEquals(Set.of(
+                    ids[0] + ",full@mail.ru,Ivan,\"Smith, \"\"Jr\"\"\",1990-01-08,ADMIN,\"Acme, Inc\"",
+                    ids[1] + ",empty@mail.ru,,,,,"), Set.copyOf(lines.subList(1, lines.size())));
+
+            Path ndjson = directory.resolve("users.ndjson");
+            exporter.export(ndjson, ExportFormat.NDJSON);
+
+            assertEquals(Set.of(
+                    "{\"id\":" + ids[0] + ",\"username\":\"full@mail.ru\",\"first_name\":\"Ivan\","
+                            + "\"last_name\":\"Smith, \\\"Jr\\\"\",\"birth_date\":\"1990-01-08\",\"role\":\"ADMIN\","
+                            + "\"company\":\"Acme, Inc\"}",
+                    "{\"id\":" + ids[1] + ",\"username\":\"empty@mail.ru\",\"first_name\":null,\"last_name\":null,"
+                            + "\"birth_date\":null,\"role\":null,\"company\":null}"),
+                    Set.copyOf(Files.readAllLines(ndjson)));
+        }
+    }
+
+    @Test
+    public void writeFailureRollsBackTransaction() {
+        try (SessionFactory sessionFactory = sessionFactory("failure")) {
+            // больше, чем помещается в буфер записи: ошибка канала приходит посреди курсора
+            sessionFactory.inStatelessTransaction(session -> {
+                for (int i = 0; i < 2_000; i++) {
+                    session.insert(User.builder().username("failure-" + i + "@mail.ru").build());
+                }
+            });
+            WritableByteChannel full = new WritableByteChannel() {
+                @Override
+                public int write(ByteBuffer source) throws IOException {
+                    throw new IOException("No space left on device");
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            Statistics statistics = sessionFactory.getStatistics();
+            long transactions = statistics.getTransactionCount();
+            long successful = statistics.getSuccessfulTransactionCount();
+
+            assertThrows(IOException.class,
+                    () -> new UserExporter(sessionFactory).export(full, ExportFormat.NDJSON, "full channel"));
+
+            assertEquals(transactions + 1, statistics.getTransactionCount());
+            assertEquals(successful, statistics.getSuccessfulTransactionCount());
+        }
+    }
+
+    private static SessionFactory sessionFactory(String database) {
+        return HibernateUtil.buildSessionFactory(new Configuration().configure("hibernate-test.cfg.xml")
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:export-" + database + ";DB_CLOSE_DELAY=-1"));
+    }
+}
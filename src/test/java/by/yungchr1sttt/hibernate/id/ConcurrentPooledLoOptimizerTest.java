@@ -0,0 +1,87 @@
+package by.yungchr1sttt.hibernate.id;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class ConcurrentPooledLoOptimizerTest {
+
+    private static final int INCREMENT = 50;
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void concurrentSessionsGetDisjointIdsFromSharedBlocks() throws Exception {
+        ConcurrentPooledLoOptimizer optimizer = new ConcurrentPooledLoOptimizer(Long.class, INCREMENT);
+        SequenceCallback sequence = new SequenceCallback();
+        Set<Serializable> ids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int task = 0; task < 100; task++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        ids.add(optimizer.generate(sequence));
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+
+        assertEquals(10_000, ids.size());
+        // каждый блок расходуется целиком, лишних nextval нет
+        assertEquals(10_000 / INCREMENT, sequence.calls.get());
+    }
+
+    @Test
+    public void entitiesUseConfiguredOptimizer() {
+        SessionFactoryImplementor sessionFactory = HibernateUtil.getSessionFactory("hibernate-test.cfg.xml")
+                .unwrap(SessionFactoryImplementor.class);
+        SequenceStyleGenerator generator = (SequenceStyleGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Company.class)
+                .getGenerator();
+
+        assertInstanceOf(ConcurrentPooledLoOptimizer.class, generator.getOptimizer());
+        assertEquals(20, generator.getOptimizer().getIncrementSize());
+    }
+
+    private static class SequenceCallback implements AccessCallback {
+
+        private final AtomicLong calls = new AtomicLong();
+
+        @Override
+        public IntegralDataTypeHolder getNextValue() {
+            long value = 1 + calls.getAndIncrement() * INCREMENT;
+            return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class).initialize(value);
+        }
+
+        @Override
+        public String getTenantIdentifier() {
+            return null;
+        }
+    }
+}
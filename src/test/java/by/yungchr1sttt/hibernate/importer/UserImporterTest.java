@@ -0,0 +1,142 @@
+package by.yungchr1sttt.hibernate.importer;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.Role;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.export.ExportFormat;
+import by.yungchr1sttt.hibernate.export.UserExporter;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserImporterTest {
+
+    private static final String HEADER = "id,username,first_name,last_name,birth_date,role,company\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void importsCsvInParallelSegmentsAndReimportsItsNdjsonExport() throws IOException {
+        Path csv = directory.resolve("users.csv");
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 300; i++) {
+            content.append(i).append(",user-").append(i).append("@mail.ru,Ivan,")
+                    .append(i == 7 ? "\"Smith, \"\"Jr\"\"\"" : "Ivanov").append(",1990-01-")
+                    .append("%02d".formatted(i % 28 + 1)).append(",USER,Company-").append(i / 100).append('\n');
+        }
+        Files.writeString(csv, content, StandardCharsets.UTF_8);
+
+        try (SessionFactory sessionFactory = sessionFactory("csv")) {
+            sessionFactory.inTransaction(session -> session.persist(Company.builder().name("Company-0").build()));
+
+            ImportResult result = UserImporter.builder()
+                    .sessionFactory(sessionFactory)
+                    .threads(3)
+                    .batchSize(20)
+                    .segmentSize(512)
+                    .build()
+                    .importFile(csv, ImportFormat.CSV);
+
+            assertEquals(300, result.rows());
+            assertEquals(2, result.companiesCreated());
+            assertEquals(0, committedSegments(sessionFactory));
+            assertEquals(List.of(100, 100, 100), memberCounts(sessionFactory));
+            sessionFactory.inSession(session -> {
+                User user = session.bySimpleNaturalId(User.class).load("user-7@mail.ru");
+                assertEquals("Smith, \"Jr\"", user.getPersonalInfo().getLastName());
+                assertEquals(LocalDate.of(1990, 1, 8), user.getPersonalInfo().getBirthDate().birthDate());
+                assertEquals(Role.USER, user.getRole());
+                assertEquals("Company-0", user.getCompany().getName());
+            });
+
+            Path ndjson = directory.resolve("users.ndjson");
+            new UserExporter(sessionFactory).export(ndjson, ExportFormat.NDJSON);
+            try (SessionFactory copy = sessionFactory("ndjson")) {
+                ImportResult copied = UserImporter.builder()
+                        .sessionFactory(copy)
+                        .threads(2)
+                        .segmentSize(4096)
+                        .build()
+                        .importFile(ndjson, ImportFormat.NDJSON);
+
+                assertEquals(300, copied.rows());
+                assertEquals(List.of(100, 100, 100), memberCounts(copy));
+                copy.inSession(session -> assertEquals("Smith, \"Jr\"", session.bySimpleNaturalId(User.class)
+                        .load("user-7@mail.ru")
+                        .getPersonalInfo()
+                        .getLastName()));
+            }
+        }
+    }
+
+    @Test
+    public void restartsFromCommittedSegmentsAfterFailure() throws IOException {
+        Path csv = directory.resolve("restart.csv");
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 100; i++) {
+            content.append(i).append(",restart-").append(i).append("@mail.ru,,,,")
+                    .append(i == 60 ? "XXXXX" : "ADMIN").append(",Restart\n");
+        }
+        Files.writeString(csv, content, StandardCharsets.UTF_8);
+
+        try (SessionFactory sessionFactory = sessionFactory("restart")) {
+            UserImporter importer = UserImporter.builder()
+                    .sessionFactory(sessionFactory)
+                    .threads(1)
+                    .segmentSize(256)
+                    .build();
+            assertThrows(IllegalArgumentException.class, () -> importer.importFile(csv, ImportFormat.CSV));
+
+            long committed = committedSegments(sessionFactory);
+            assertTrue(committed > 0);
+            Long imported = sessionFactory.fromSession(session -> session
+                    .createSelectionQuery("select count(u) from User u", Long.class)
+                    .getSingleResult());
+            Files.writeString(csv, content.toString().replace("XXXXX", "ADMIN"), StandardCharsets.UTF_8);
+
+            ImportResult result = importer.importFile(csv, ImportFormat.CSV);
+
+            // в базе ровно строки отмеченных сегментов - упавший откатился вместе с отметкой
+            assertEquals(100 - imported, result.rows());
+            assertTrue(result.skippedBytes() > 0);
+            assertEquals(0, committedSegments(sessionFactory));
+            assertEquals(List.of(100), memberCounts(sessionFactory));
+            Long admins = sessionFactory.fromSession(session -> session
+                    .createSelectionQuery("select count(u) from User u where u.role = :role", Long.class)
+                    .setParameter("role", Role.ADMIN)
+                    .getSingleResult());
+            assertEquals(100, admins);
+        }
+    }
+
+    private static long committedSegments(SessionFactory sessionFactory) {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery("select count(s) from ImportSegment s", Long.class)
+                .getSingleResult());
+    }
+
+    private static List<Integer> memberCounts(SessionFactory sessionFactory) {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery("select c.memberCount from Company c order by c.name", Integer.class)
+                .getResultList());
+    }
+
+    private static SessionFactory sessionFactory(String database) {
+        return HibernateUtil.buildSessionFactory(new Configuration().configure("hibernate-test.cfg.xml")
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:import-" + database + ";DB_CLOSE_DELAY=-1"));
+    }
+}
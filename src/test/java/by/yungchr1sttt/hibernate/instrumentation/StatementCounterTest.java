@@ -0,0 +1,99 @@
+package by.yungchr1sttt.hibernate.instrumentation;
+
+import by.yungchr1sttt.hibernate.entity.Author;
+import by.yungchr1sttt.hibernate.entity.Book;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import lombok.Cleanup;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCounterTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+    private static final int AUTHORS = 12;
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void seedAuthors() {
+        sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < AUTHORS; i++) {
+                Author author = Author.builder()
+                        .name("Author " + i)
+                        .build();
+                session.persist(author);
+                for (int j = 0; j < 2; j++) {
+                    session.persist(Book.builder()
+                            .title("Book " + i + "." + j)
+                            .author(author)
+                            .build());
+                }
+            }
+        });
+    }
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void authorPerBookSelectIsReportedAsNPlusOne() {
+        var counter = StatementCounter.builder()
+                .name("books")
+                .build();
+
+        try (var session = counter.openSession(sessionFactory)) {
+            session.beginTransaction();
+            // Book.author - EAGER ManyToOne: каждый автор грузится отдельным select
+            session.createQuery("from Book", Book.class).list();
+            session.getTransaction().commit();
+        }
+
+        var report = counter.report();
+        assertEquals(1 + AUTHORS, report.statements());
+        assertEquals(1, report.transactions());
+        assertEquals(1, report.suspectedNPlusOne().size());
+        assertEquals(AUTHORS, report.suspectedNPlusOne().values().iterator().next());
+        assertTrue(report.suspectedNPlusOne().keySet().iterator().next().contains("authors"));
+    }
+
+    @Test
+    public void budgetFailsSession() {
+        var counter = StatementCounter.builder()
+                .budget(2)
+                .mode(BudgetMode.FAIL)
+                .build();
+        @Cleanup var session = counter.openSession(sessionFactory);
+
+        List<Author> authors = session.createQuery("from Author", Author.class).list();
+
+        // @BatchSize(10): 12 авторов - два батча книг, третий запрос выходит за бюджет
+        assertThrows(StatementBudgetExceededException.class,
+                () -> authors.forEach(author -> author.getBooks().size()));
+    }
+
+    @Test
+    public void budgetOnlyWarnsInWarnMode() {
+        var counter = StatementCounter.builder()
+                .budget(1)
+                .mode(BudgetMode.WARN)
+                .build();
+
+        try (var session = counter.openSession(sessionFactory)) {
+            session.createQuery("from Author", Author.class).list()
+                    .forEach(author -> author.getBooks().size());
+        }
+
+        assertEquals(3, counter.getStatements());
+    }
+}
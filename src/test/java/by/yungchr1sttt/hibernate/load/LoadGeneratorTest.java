@@ -0,0 +1,64 @@
+package by.yungchr1sttt.hibernate.load;
+
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void mixedWorkloadCompletesOnVirtualThreads() {
+        LoadReport report = LoadGenerator.builder()
+                .sessionFactory(HibernateUtil.getSessionFactory(CONFIGURATION))
+                .concurrency(50)
+                .units(300)
+                .build()
+                .run();
+
+        assertEquals(0, report.failed());
+        assertEquals(300, report.completed());
+        assertEquals(LoadGenerator.DEFAULT_MIX.keySet(), report.latencies().keySet());
+        report.latencies().values().forEach(latency -> {
+            assertTrue(latency.count() > 0);
+            assertTrue(latency.p50Nanos() <= latency.p99Nanos());
+            assertTrue(latency.p99Nanos() <= latency.p999Nanos());
+        });
+        assertTrue(report.throughput() > 0);
+    }
+
+    @Test
+    public void pinnedVirtualThreadIsReported() throws InterruptedException {
+        Object monitor = new Object();
+        PinningMonitor pinning = new PinningMonitor(Duration.ofMillis(10));
+        try {
+            // sleep под synchronized в Java 21 не отпускает поток-носитель
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+        } finally {
+            pinning.close();
+        }
+
+        PinningReport report = pinning.report();
+        assertEquals(1, report.events());
+        assertEquals(0, report.inJdbc());
+    }
+}
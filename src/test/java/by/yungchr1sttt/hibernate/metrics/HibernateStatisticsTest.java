@@ -0,0 +1,61 @@
+package by.yungchr1sttt.hibernate.metrics;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.apache.log4j.spi.Filter;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HibernateStatisticsTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    @Test
+    public void statisticsAreExposedOverJmxUntilFactoryCloses() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name;
+        try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory(CONFIGURATION)) {
+            name = StatisticsJmxIntegrator.objectName(sessionFactory);
+            assertTrue(server.isRegistered(name));
+            HibernateStatisticsMXBean statistics = JMX.newMXBeanProxy(server, name, HibernateStatisticsMXBean.class);
+
+            Integer id = sessionFactory.fromTransaction(session -> {
+                Company company = Company.builder().name("Statistics-" + UUID.randomUUID()).build();
+                session.persist(company);
+                return company.getId();
+            });
+            // первое чтение кладёт сущность в регион, второе берёт из него
+            sessionFactory.inSession(session -> session.find(Company.class, id));
+            sessionFactory.inSession(session -> session.find(Company.class, id));
+
+            assertTrue(statistics.isStatisticsEnabled());
+            assertEquals(1L, statistics.getEntityStatistics().get(Company.class.getName() + "#inserts"));
+            assertTrue(statistics.getCacheRegionStatistics().get("reference.company#hits") >= 1);
+            assertTrue(statistics.getTransactionCount() >= 1);
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void samplingFilterPassesEveryNthEvent() {
+        SamplingFilter filter = new SamplingFilter();
+        filter.setEvery(3);
+
+        long passed = IntStream.range(0, 9)
+                .filter(i -> filter.decide(null) == Filter.NEUTRAL)
+                .count();
+
+        assertEquals(3, passed);
+    }
+}
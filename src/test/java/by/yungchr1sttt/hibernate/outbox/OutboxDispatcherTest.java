@@ -0,0 +1,258 @@
+package by.yungchr1sttt.hibernate.outbox;
+
+import by.yungchr1sttt.hibernate.dao.ChatDao;
+import by.yungchr1sttt.hibernate.dao.CompanyDao;
+import by.yungchr1sttt.hibernate.entity.Chat;
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.OutboxEvent;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.entity.UserChat;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxDispatcherTest {
+
+    @Test
+    public void deliversCommittedMembershipEventsInChatOrder() throws InterruptedException {
+        try (SessionFactory sessionFactory = sessionFactory("order")) {
+            List<Long> chatIds = createChats(sessionFactory, "order", 3);
+            List<Long> userIds = createUsers(sessionFactory, "order", 60);
+            ChatDao chatDao = ChatDao.getInstance();
+            for (int i = 0; i < userIds.size(); i++) {
+                Long chatId = chatIds.get(i % chatIds.size());
+                Long userId = userIds.get(i);
+                if (i % 2 == 0) {
+                    sessionFactory.inTransaction(session -> chatDao.addMember(session, chatId, userId));
+                } else {
+                    // как в checkManyToMany: UserChat через загруженные сущности
+                    sessionFactory.inTransaction(session -> {
+                        UserChat userChat = new UserChat();
+                        userChat.setChat(session.find(Chat.class, chatId));
+                        userChat.setUser(session.find(User.class, userId));
+                        session.persist(userChat);
+                    });
+                }
+            }
+            sessionFactory.inTransaction(session -> {
+                chatDao.addMember(session, chatIds.getFirst(), userIds.get(1));
+                session.flush();
+                session.getTransaction().setRollbackOnly();
+            });
+            sessionFactory.inTransaction(session -> chatDao.removeMember(session, session
+                    .createSelectionQuery("from UserChat uc where uc.user.id = :userId", UserChat.class)
+                    .setParameter("userId", userIds.getFirst())
+                    .getSingleResult()));
+
+            List<OutboxEvent> written = sessionFactory.fromSession(session -> session
+                    .createSelectionQuery("from OutboxEvent e order by e.id", OutboxEvent.class)
+                    .getResultList());
+            assertEquals(userIds.size() + 1, written.size());
+            assertEquals(OutboxEventType.MEMBER_LEFT, written.getLast().getType());
+
+            Map<Long, List<Long>> received = new ConcurrentHashMap<>();
+            AtomicInteger calls = new AtomicInteger();
+            OutboxSink flakySink = events -> {
+                if (calls.incrementAndGet() % 4 == 0) {
+                    throw new IllegalStateException("Downstream is unavailable");
+                }
+                events.forEach(event -> received
+                        .computeIfAbsent(event.getChatId(), chatId -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(event.getId()));
+            };
+            OutboxDispatcher dispatcher = OutboxDispatcher.builder()
+                    .sessionFactory(sessionFactory)
+                    .sink(flakySink)
+                    .threads(4)
+                    .batchSize(7)
+                    .pollInterval(Duration.ofMillis(5))
+                    .baseBackoff(Duration.ofMillis(1))
+                    .maxBackoff(Duration.ofMillis(10))
+                    .build();
+            dispatcher.start();
+            try {
+                awaitEmptyOutbox(sessionFactory);
+            } finally {
+                dispatcher.close();
+            }
+
+            for (Long chatId : chatIds) {
+                assertEquals(written.stream().filter(event -> event.getChatId().equals(chatId)).map(OutboxEvent::getId)
+                        .toList(), received.get(chatId));
+            }
+            OutboxMetrics metrics = dispatcher.getMetrics();
+            assertEquals(written.size(), metrics.delivered());
+            assertTrue(metrics.failed() > 0);
+            assertEquals(0, metrics.deadLettered());
+        }
+    }
+
+    @Test
+    public void poisonEventIsDeadLetteredAndReleasesItsChat() {
+        try (SessionFactory sessionFactory = sessionFactory("poison")) {
+            Long chatId = createChats(sessionFactory, "poison", 1).getFirst();
+            List<Long> userIds = createUsers(sessionFactory, "poison", 4);
+            userIds.forEach(userId -> sessionFactory.inTransaction(session ->
+                    ChatDao.getInstance().addMember(session, chatId, userId)));
+
+            Long poison = userIds.get(1);
+            List<Long> received = new ArrayList<>();
+            OutboxDispatcher dispatcher = OutboxDispatcher.builder()
+                    .sessionFactory(sessionFactory)
+                    .sink(events -> {
+                        if (events.stream().anyMatch(event -> poison.equals(event.getUserId()))) {
+                            throw new IllegalArgumentException("Unsupported user " + poison);
+                        }
+                        events.forEach(event -> received.add(event.getUserId()));
+                    })
+                    .maxAttempts(3)
+                    .baseBackoff(Duration.ZERO)
+                    .build();
+            for (int i = 0; i < 10 && received.size() < 3; i++) {
+                dispatcher.dispatchOnce();
+            }
+
+            assertEquals(List.of(userIds.get(0), userIds.get(2), userIds.get(3)), received);
+            OutboxEvent dead = sessionFactory.fromSession(session -> session
+                    .createSelectionQuery("from OutboxEvent e", OutboxEvent.class)
+                    .getSingleResult());
+            assertEquals(OutboxStatus.DEAD, dead.getStatus());
+            assertEquals(poison, dead.getUserId());
+            assertEquals(3, dead.getAttempts());
+            assertTrue(dead.getLastError().contains("Unsupported user"));
+            assertEquals(1, dispatcher.getMetrics().deadLettered());
+        }
+    }
+
+    @Test
+    public void chatWaitingForRetryDoesNotStallOtherChats() {
+        try (SessionFactory sessionFactory = sessionFactory("stall")) {
+            List<Long> chatIds = createChats(sessionFactory, "stall", 2);
+            List<Long> userIds = createUsers(sessionFactory, "stall", 8);
+            // хвост первого чата больше batchSize, события второго чата - после него
+            for (int i = 0; i < userIds.size(); i++) {
+                Long chatId = chatIds.get(i < 6 ? 0 : 1);
+                Long userId = userIds.get(i);
+                sessionFactory.inTransaction(session -> ChatDao.getInstance().addMember(session, chatId, userId));
+            }
+
+            List<Long> received = new ArrayList<>();
+            OutboxDispatcher dispatcher = OutboxDispatcher.builder()
+                    .sessionFactory(sessionFactory)
+                    .sink(events -> {
+                        if (events.getFirst().getChatId().equals(chatIds.getFirst())) {
+                            throw new IllegalStateException("Downstream rejects chat " + chatIds.getFirst());
+                        }
+                        events.forEach(event -> received.add(event.getUserId()));
+                    })
+                    .batchSize(3)
+                    .baseBackoff(Duration.ofMinutes(1))
+                    .build();
+            for (int i = 0; i < 3; i++) {
+                dispatcher.dispatchOnce();
+            }
+
+            assertEquals(userIds.subList(6, 8), received);
+            assertEquals(1, dispatcher.getMetrics().failed());
+        }
+    }
+
+    @Test
+    public void bulkRemovalsWriteMemberLeftEvents() {
+        try (SessionFactory sessionFactory = sessionFactory("bulk")) {
+            List<Long> chatIds = createChats(sessionFactory, "bulk", 2);
+            Integer companyId = sessionFactory.fromTransaction(session -> {
+                Company company = Company.builder().name("Bulk").build();
+                session.persist(company);
+                return company.getId();
+            });
+            List<Long> employees = sessionFactory.fromTransaction(session -> {
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    ids.add(CompanyDao.getInstance()
+                            .addUser(session, companyId, User.builder().username("bulk-employee-" + i).build())
+                            .getId());
+                }
+                return ids;
+            });
+            List<Long> guests = createUsers(sessionFactory, "bulk-guest", 2);
+            sessionFactory.inTransaction(session -> {
+                employees.forEach(userId -> ChatDao.getInstance().addMember(session, chatIds.get(1), userId));
+                guests.forEach(userId -> ChatDao.getInstance().addMember(session, chatIds.get(0), userId));
+                ChatDao.getInstance().addMember(session, chatIds.get(0), employees.getFirst());
+            });
+            sessionFactory.inTransaction(session -> session.createMutationQuery("delete from OutboxEvent")
+                    .executeUpdate());
+
+            sessionFactory.inTransaction(session -> {
+                assertEquals(2, ChatDao.getInstance().removeAllMembers(session, chatIds.get(1)));
+                assertEquals(2, CompanyDao.getInstance().removeUsers(session, companyId));
+            });
+
+            List<OutboxEvent> written = sessionFactory.fromSession(session -> session
+                    .createSelectionQuery("from OutboxEvent e order by e.id", OutboxEvent.class)
+                    .getResultList());
+            assertTrue(written.stream().allMatch(event -> event.getType() == OutboxEventType.MEMBER_LEFT));
+            assertEquals(Map.of(chatIds.get(1), Set.copyOf(employees), chatIds.get(0), Set.of(employees.getFirst())),
+                    written.stream().collect(Collectors.groupingBy(OutboxEvent::getChatId,
+                            Collectors.mapping(OutboxEvent::getUserId, Collectors.toSet()))));
+        }
+    }
+
+    private static void awaitEmptyOutbox(SessionFactory sessionFactory) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (System.nanoTime() < deadline) {
+            Long pending = sessionFactory.fromSession(session -> session
+                    .createSelectionQuery("select count(e) from OutboxEvent e", Long.class)
+                    .getSingleResult());
+            if (pending == 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Outbox was not drained in time");
+    }
+
+    private static List<Long> createChats(SessionFactory sessionFactory, String prefix, int count) {
+        return sessionFactory.fromTransaction(session -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Chat chat = Chat.builder().name(prefix + "-chat-" + i).build();
+                session.persist(chat);
+                ids.add(chat.getId());
+            }
+            return ids;
+        });
+    }
+
+    private static List<Long> createUsers(SessionFactory sessionFactory, String prefix, int count) {
+        return sessionFactory.fromTransaction(session -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                User user = User.builder().username(prefix + "-" + i + "@mail.ru").build();
+                session.persist(user);
+                ids.add(user.getId());
+            }
+            return ids;
+        });
+    }
+
+    private static SessionFactory sessionFactory(String database) {
+        return HibernateUtil.buildSessionFactory(new Configuration().configure("hibernate-test.cfg.xml")
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:outbox-" + database + ";DB_CLOSE_DELAY=-1"));
+    }
+}
@@ -0,0 +1,184 @@
+package by.yungchr1sttt.hibernate.pool;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.instrumentation.StatementCounter;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingConnectionProviderTest {
+
+    private static final String CONFIGURATION = "hibernate-routing-test.cfg.xml";
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void readsAreSpreadOverReplicasAndWritesStayOnPrimary() {
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+
+        Set<String> readDatabases = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            readDatabases.add(HibernateUtil.fromReadOnlySession(sessionFactory,
+                    RoutingConnectionProviderTest::database));
+        }
+        readDatabases.add(HibernateUtil.fromReadOnlyTransaction(sessionFactory,
+                RoutingConnectionProviderTest::database));
+
+        assertEquals(Set.of("routing-replica-1", "routing-replica-2"), readDatabases);
+        assertEquals("routing-primary", sessionFactory.fromTransaction(RoutingConnectionProviderTest::database));
+        assertEquals(5, HibernateUtil.getRoutingMetrics(sessionFactory).orElseThrow().replicaReads());
+    }
+
+    @Test
+    public void readAfterWriteStaysOnPrimaryWithinStickyWindow() throws InterruptedException {
+        try (SessionFactory sessionFactory = new Configuration()
+                .configure(CONFIGURATION)
+                .setProperty(RoutingConnectionProvider.STICKY_WINDOW, "60000")
+                .buildSessionFactory()) {
+            // в свежем потоке: метка записи в этом потоке от других тестов не сдвинет окно
+            List<String> reads = runInNewThread(() -> {
+                List<String> databases = new ArrayList<>();
+                databases.add(HibernateUtil.fromReadOnlySession(sessionFactory,
+                        RoutingConnectionProviderTest::database));
+
+                sessionFactory.inTransaction(session -> session.createNativeQuery("select 1", Integer.class)
+                        .getSingleResult());
+                databases.add(HibernateUtil.fromReadOnlySession(sessionFactory,
+                        RoutingConnectionProviderTest::database));
+
+                // сессия со своим inspector: запись всё равно видна inspector фабрики
+                try (Session session = StatementCounter.builder().build().openSession(sessionFactory)) {
+                    session.inTransaction(transaction -> {
+                        session.doWork(connection -> connection.createStatement()
+                                .execute("create table if not exists sticky_write (id int)"));
+                        session.createNativeMutationQuery("insert into sticky_write values (1)").executeUpdate();
+                    });
+                }
+                databases.add(HibernateUtil.fromReadOnlySession(sessionFactory,
+                        RoutingConnectionProviderTest::database));
+                return databases;
+            });
+
+            assertTrue(reads.get(0).startsWith("routing-replica"));
+            assertTrue(reads.get(1).startsWith("routing-replica"), "primary read without a write is not sticky");
+            assertEquals("routing-primary", reads.get(2));
+        }
+    }
+
+    @Test
+    public void unreachableReplicaIsEjected() {
+        try (SessionFactory sessionFactory = new Configuration()
+                .configure(CONFIGURATION)
+                .setProperty(RoutingConnectionProvider.REPLICAS,
+                        "jdbc:h2:tcp://localhost:1/dead,jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1")
+                .setProperty(RoutingConnectionProvider.SELECTION, "least_loaded")
+                .buildSessionFactory()) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals("routing-replica-1", HibernateUtil.fromReadOnlySession(sessionFactory,
+                        RoutingConnectionProviderTest::database));
+            }
+
+            RoutingMetrics metrics = HibernateUtil.getRoutingMetrics(sessionFactory).orElseThrow();
+            assertFalse(metrics.replicas().get(0).healthy());
+            assertTrue(metrics.replicas().get(1).healthy());
+            assertEquals(4, metrics.replicaReads());
+        }
+    }
+
+    @Test
+    public void busyReplicaIsSkippedWithoutEjection() throws SQLException {
+        try (SessionFactory sessionFactory = new Configuration()
+                .configure(CONFIGURATION)
+                .setProperty(RoutingConnectionProvider.REPLICAS, "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1")
+                .setProperty(PooledConnectionProvider.MAX_SIZE, "1")
+                .buildSessionFactory()) {
+            RoutingConnectionProvider provider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .requireService(ConnectionProvider.class)
+                    .unwrap(RoutingConnectionProvider.class);
+            // единственное соединение реплики занято - чтение ждёт replica_acquire_timeout и уходит на primary
+            try (Connection busy = RoutingContext.callReadOnly(() -> replicaConnection(provider))) {
+                assertEquals("routing-replica-1", busy.getCatalog().toLowerCase());
+                assertEquals("routing-primary", HibernateUtil.fromReadOnlySession(sessionFactory,
+                        RoutingConnectionProviderTest::database));
+            }
+
+            assertTrue(HibernateUtil.getRoutingMetrics(sessionFactory).orElseThrow().replicas().getFirst().healthy());
+            assertEquals("routing-replica-1", HibernateUtil.fromReadOnlySession(sessionFactory,
+                    RoutingConnectionProviderTest::database));
+        }
+    }
+
+    @Test
+    public void replicaReadsDoNotPopulateSecondLevelCache() {
+        // "реплика" - та же база, что primary: строка видна, проверяется только запись в кэш
+        String url = "jdbc:h2:mem:routing-cache;DB_CLOSE_DELAY=-1";
+        try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory(new Configuration()
+                .configure("hibernate-test.cfg.xml")
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.provider_class", RoutingConnectionProvider.class.getName())
+                .setProperty(RoutingConnectionProvider.REPLICAS, url))) {
+            Integer companyId = sessionFactory.fromTransaction(session -> {
+                Company company = Company.builder().name("Replica").build();
+                session.persist(company);
+                return company.getId();
+            });
+            sessionFactory.getCache().evictEntityData(Company.class, companyId);
+            Statistics statistics = sessionFactory.getStatistics();
+            long putsBefore = statistics.getSecondLevelCachePutCount();
+            long naturalIdPutsBefore = statistics.getNaturalIdCachePutCount();
+
+            HibernateUtil.fromReadOnlyTransaction(sessionFactory, session -> session.find(Company.class, companyId));
+            HibernateUtil.fromReadOnlySession(sessionFactory, session -> session.get(Company.class, companyId));
+
+            assertEquals(putsBefore, statistics.getSecondLevelCachePutCount());
+            assertEquals(naturalIdPutsBefore, statistics.getNaturalIdCachePutCount());
+            assertFalse(sessionFactory.getCache().containsEntity(Company.class, companyId));
+
+            sessionFactory.inTransaction(session -> session.find(Company.class, companyId));
+            assertTrue(sessionFactory.getCache().containsEntity(Company.class, companyId));
+        }
+    }
+
+    private static String database(SharedSessionContract session) {
+        return session.doReturningWork(connection -> connection.getCatalog()).toLowerCase();
+    }
+
+    private static Connection replicaConnection(RoutingConnectionProvider provider) {
+        try {
+            return provider.getConnection();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static <T> T runInNewThread(Supplier<T> work) throws InterruptedException {
+        AtomicReference<T> result = new AtomicReference<>();
+        Thread thread = Thread.ofPlatform().start(() -> result.set(work.get()));
+        thread.join();
+        return result.get();
+    }
+}
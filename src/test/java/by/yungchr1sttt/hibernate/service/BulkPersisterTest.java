@@ -0,0 +1,51 @@
+package by.yungchr1sttt.hibernate.service;
+
+import by.yungchr1sttt.hibernate.entity.Company;
+import by.yungchr1sttt.hibernate.entity.Profile;
+import by.yungchr1sttt.hibernate.entity.User;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkPersisterTest {
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void persistsWholeGraphInChunks() {
+        var sessionFactory = HibernateUtil.getSessionFactory("hibernate-test.cfg.xml");
+        List<Company> companies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Company company = Company.builder()
+                    .name("Bulk-" + i)
+                    .build();
+            for (int j = 0; j < 10; j++) {
+                User user = User.builder()
+                        .username("bulk-" + i + "-" + j + "@mail.ru")
+                        .build();
+                company.addUser(user);
+                Profile.builder()
+                        .language("Ru")
+                        .build()
+                        .setUser(user);
+            }
+            companies.add(company);
+        }
+
+        BulkPersistResult result = new BulkPersister(sessionFactory, 25).persist(companies);
+
+        assertEquals(20 + 200 + 200, result.rows());
+        Long users = sessionFactory.fromTransaction(session ->
+                session.createSelectionQuery("select count(u) from User u where u.company.name like 'Bulk-%'", Long.class)
+                        .getSingleResult());
+        assertEquals(200, users);
+    }
+}
@@ -0,0 +1,86 @@
+package by.yungchr1sttt.hibernate.service;
+
+import by.yungchr1sttt.hibernate.entity.Course;
+import by.yungchr1sttt.hibernate.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimisticRetryExecutorTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void conflictingChangeIsReappliedToFreshState() {
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        Integer courseId = createCourse(sessionFactory);
+        OptimisticRetryExecutor executor = OptimisticRetryExecutor.builder()
+                .sessionFactory(sessionFactory)
+                .baseBackoff(Duration.ofMillis(1))
+                .build();
+        AtomicInteger attempts = new AtomicInteger();
+
+        executor.executeVoid(session -> {
+            Course course = session.find(Course.class, courseId);
+            if (attempts.incrementAndGet() == 1) {
+                // конкурент успевает закоммитить между чтением и записью
+                rename(sessionFactory, courseId, "-b");
+            }
+            course.setName(course.getName() + "-a");
+        });
+
+        Course course = sessionFactory.fromTransaction(session -> session.find(Course.class, courseId));
+        assertTrue(course.getName().endsWith("-b-a"));
+        assertEquals(2L, course.getVersion());
+        assertEquals(new RetryMetrics(1, 1, 1, 0), executor.getMetrics());
+        assertEquals(0.5, executor.getMetrics().conflictRate());
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() {
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        Integer courseId = createCourse(sessionFactory);
+        OptimisticRetryExecutor executor = OptimisticRetryExecutor.builder()
+                .sessionFactory(sessionFactory)
+                .maxAttempts(3)
+                .baseBackoff(Duration.ofMillis(1))
+                .build();
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> executor.executeVoid(session -> {
+            Course course = session.find(Course.class, courseId);
+            rename(sessionFactory, courseId, "-b");
+            course.setName(course.getName() + "-a");
+        }));
+
+        assertTrue(OptimisticRetryExecutor.isConflict(ex));
+        assertEquals(new RetryMetrics(1, 3, 2, 1), executor.getMetrics());
+    }
+
+    private static Integer createCourse(SessionFactory sessionFactory) {
+        return sessionFactory.fromTransaction(session -> {
+            Course course = Course.builder().name("Optimistic-" + UUID.randomUUID()).build();
+            session.persist(course);
+            return course.getId();
+        });
+    }
+
+    private static void rename(SessionFactory sessionFactory, Integer courseId, String suffix) {
+        sessionFactory.inTransaction(session -> {
+            Course course = session.find(Course.class, courseId);
+            course.setName(course.getName() + suffix);
+        });
+    }
+}
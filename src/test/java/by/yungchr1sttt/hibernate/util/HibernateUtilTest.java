@@ -0,0 +1,135 @@
+package by.yungchr1sttt.hibernate.util;
+
+import by.yungchr1sttt.hibernate.entity.Author;
+import by.yungchr1sttt.hibernate.entity.Company;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HibernateUtilTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void sameFactoryIsSharedPerConfiguration() {
+        var sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+
+        assertSame(sessionFactory, HibernateUtil.getSessionFactory(CONFIGURATION));
+        assertTrue(HibernateUtil.getBootstrapTimings().containsKey("SessionFactory[" + CONFIGURATION + "]"));
+    }
+
+    @Test
+    public void closedFactoryIsRebuilt() {
+        var sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.close();
+
+        var rebuilt = HibernateUtil.getSessionFactory(CONFIGURATION);
+
+        assertNotSame(sessionFactory, rebuilt);
+        assertTrue(rebuilt.isOpen());
+    }
+
+    @Test
+    public void bootstrapPhasesAreTimed() {
+        HibernateUtil.getSessionFactory(CONFIGURATION);
+
+        var timings = HibernateUtil.getBootstrapTimings();
+        assertTrue(timings.containsKey("SessionFactory[" + CONFIGURATION + "] registry"));
+        assertTrue(timings.containsKey("SessionFactory[" + CONFIGURATION + "] metadata"));
+        assertTrue(timings.containsKey("SessionFactory[" + CONFIGURATION + "] build"));
+    }
+
+    @Test
+    public void fastBootSkipsSchemaAndNamedQueryChecks() {
+        Configuration configuration = new Configuration().configure(CONFIGURATION)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:fast-boot;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .setProperty(HibernateUtil.FAST_BOOT, "true");
+
+        try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory(configuration)) {
+            assertFalse(sessionFactory.unwrap(SessionFactoryImplementor.class)
+                    .getSessionFactoryOptions()
+                    .isNamedQueryStartupCheckingEnabled());
+            // create-drop из тестовой конфигурации проигнорирован - таблиц нет
+            Long tables = sessionFactory.fromSession(session -> session
+                    .createNativeQuery("""
+                            select count(*) from information_schema.tables
+                            where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'
+                            """, Long.class)
+                    .getSingleResult());
+            assertEquals(0, tables);
+        }
+    }
+
+    @Test
+    public void warmUpCachesQueryPlansAndAcquiresConnection() {
+        Configuration configuration = new Configuration().configure(CONFIGURATION)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:warm-up;DB_CLOSE_DELAY=-1");
+
+        try (SessionFactory sessionFactory = HibernateUtil.buildSessionFactory(configuration)) {
+            Statistics statistics = sessionFactory.getStatistics();
+            long misses = statistics.getQueryPlanCacheMissCount();
+            long hits = statistics.getQueryPlanCacheHitCount();
+            long acquired = HibernateUtil.getPoolMetrics(sessionFactory).orElseThrow().acquireLatency().count();
+
+            HibernateUtil.warmUp(sessionFactory);
+
+            // план "from <сущность>" разобран для каждой сущности, соединение взято и проверено
+            assertEquals(misses + sessionFactory.getMetamodel().getEntities().size(),
+                    statistics.getQueryPlanCacheMissCount());
+            assertEquals(acquired + 1, HibernateUtil.getPoolMetrics(sessionFactory).orElseThrow()
+                    .acquireLatency().count());
+
+            long warmedMisses = statistics.getQueryPlanCacheMissCount();
+            sessionFactory.inSession(session -> session.createSelectionQuery("from Author", Author.class));
+            assertEquals(hits + 1, statistics.getQueryPlanCacheHitCount());
+            assertEquals(warmedMisses, statistics.getQueryPlanCacheMissCount());
+        }
+    }
+
+    @Test
+    public void pooledProviderExposesMetrics() {
+        var sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        sessionFactory.inTransaction(session -> session.createNativeQuery("select 1", Integer.class).getSingleResult());
+
+        var metrics = HibernateUtil.getPoolMetrics(sessionFactory).orElseThrow();
+
+        assertEquals(4, metrics.maxSize());
+        assertEquals(0, metrics.active());
+        assertTrue(metrics.acquireLatency().count() > 0);
+    }
+
+    @Test
+    public void secondLevelCacheServesRepeatedFinds() {
+        var sessionFactory = HibernateUtil.getSessionFactory(CONFIGURATION);
+        Integer id = sessionFactory.fromTransaction(session -> {
+            Company company = Company.builder()
+                    .name("Cached")
+                    .build();
+            session.persist(company);
+            return company.getId();
+        });
+        sessionFactory.getCache().evictAllRegions();
+
+        sessionFactory.inSession(session -> session.find(Company.class, id));
+        sessionFactory.inSession(session -> session.find(Company.class, id));
+
+        var company = HibernateUtil.getCacheStatistics(sessionFactory).get("reference.company");
+        assertEquals(1, company.getMissCount());
+        assertEquals(1, company.getHitCount());
+    }
+}
@@ -0,0 +1,44 @@
+package by.yungchr1sttt.hibernate.util;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaToolTest {
+
+    private static final String CONFIGURATION = "hibernate-test.cfg.xml";
+
+    @TempDir
+    Path directory;
+
+    @AfterAll
+    static void closeFactories() {
+        HibernateUtil.shutdown();
+    }
+
+    @Test
+    public void scriptContainsWholeSchema() throws IOException {
+        Path output = directory.resolve("schema.sql");
+
+        SchemaTool.run(CONFIGURATION, SchemaTool.Command.SCRIPT, output);
+
+        String ddl = Files.readString(output);
+        assertTrue(ddl.contains("create table public.users"));
+        assertTrue(ddl.contains("create sequence users_seq start with 1 increment by 50"));
+    }
+
+    @Test
+    public void validatesSchemaAndNamedQueries() {
+        // общая тестовая фабрика создаёт схему (create-drop), SchemaTool её только проверяет
+        HibernateUtil.getSessionFactory(CONFIGURATION);
+
+        assertDoesNotThrow(() -> SchemaTool.run(CONFIGURATION, SchemaTool.Command.VALIDATE, null));
+    }
+}